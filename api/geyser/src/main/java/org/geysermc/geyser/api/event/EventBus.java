@@ -84,6 +84,17 @@ public interface EventBus {
      */
     boolean fire(@NonNull Event event);
 
+    /**
+     * Gets if anything is subscribed to the given event class, or to one of its supertypes.
+     * Can be used to skip creating an event that nobody would receive.
+     *
+     * @param eventClass the event class
+     * @return true if firing an event of this class would reach at least one subscription
+     */
+    default boolean hasSubscriptions(@NonNull Class<? extends Event> eventClass) {
+        return !this.subscriptions(eventClass).isEmpty();
+    }
+
     /**
      * Gets the subscriptions for the given event class.
      *
@@ -73,7 +73,6 @@ import org.geysermc.geyser.network.RemoteServerImpl;
 import org.geysermc.geyser.pack.ResourcePack;
 import org.geysermc.geyser.registry.BlockRegistries;
 import org.geysermc.geyser.registry.Registries;
-import org.geysermc.geyser.scoreboard.ScoreboardUpdater;
 import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.session.PendingMicrosoftAuthentication;
 import org.geysermc.geyser.session.SessionManager;
@@ -97,9 +96,13 @@ import java.net.UnknownHostException;
 import java.security.Key;
 import java.text.DecimalFormat;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -124,6 +127,9 @@ public class GeyserImpl implements GeyserApi {
      */
     public static final String OAUTH_CLIENT_ID = "204cefd1-4818-4de1-b98d-513fae875d88";
 
+    private static final int CHUNK_ENCODING_QUEUE_SIZE = 1024;
+    private static final int LOGIN_QUEUE_SIZE = 512;
+
     private static final String IP_REGEX = "\\b\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}\\b";
 
     private final SessionManager sessionManager = new SessionManager();
@@ -141,6 +147,14 @@ public class GeyserImpl implements GeyserApi {
     private volatile boolean shuttingDown = false;
 
     private ScheduledExecutorService scheduledThread;
+    /**
+     * Used to translate chunks off of session event loops. Null if chunks should be translated on the event loop.
+     */
+    private ExecutorService chunkEncodingExecutor;
+    /**
+     * Used to verify logins off of the network threads. Null if logins should be verified on the network thread.
+     */
+    private ExecutorService loginExecutor;
 
     private BedrockServer bedrockServer;
     private final PlatformType platformType;
@@ -253,13 +267,40 @@ public class GeyserImpl implements GeyserApi {
     }
 
     private void start() {
-        this.scheduledThread = Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("Geyser Scheduled Thread"));
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new DefaultThreadFactory("Geyser Scheduled Thread"));
+        // Delayed tasks such as the next ping passthrough must not run, or keep the thread alive, after a shutdown or reload
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.scheduledThread = executor;
 
         GeyserLogger logger = bootstrap.getGeyserLogger();
         GeyserConfiguration config = bootstrap.getGeyserConfig();
         logger.setDebug(config.isDebugMode());
 
-        ScoreboardUpdater.init();
+        int chunkEncodingThreads = config.getChunkEncodingThreads();
+        if (chunkEncodingThreads < 0) {
+            chunkEncodingThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        if (chunkEncodingThreads > 0) {
+            // If too many chunks are queued, the session's own thread encodes the chunk instead
+            this.chunkEncodingExecutor = new ThreadPoolExecutor(chunkEncodingThreads, chunkEncodingThreads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(CHUNK_ENCODING_QUEUE_SIZE), new DefaultThreadFactory("Geyser Chunk Encoding Thread"),
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+        } else {
+            this.chunkEncodingExecutor = null;
+        }
+
+        int loginThreads = config.getLoginThreads();
+        if (loginThreads < 0) {
+            loginThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        if (loginThreads > 0) {
+            // If too many players are waiting to be verified, new logins are turned away
+            this.loginExecutor = new ThreadPoolExecutor(loginThreads, loginThreads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(LOGIN_QUEUE_SIZE), new DefaultThreadFactory("Geyser Login Thread"),
+                    new ThreadPoolExecutor.AbortPolicy());
+        } else {
+            this.loginExecutor = null;
+        }
 
         SkinProvider.registerCacheImageTask(this);
 
@@ -545,6 +586,13 @@ public class GeyserImpl implements GeyserApi {
         }
 
         scheduledThread.shutdown();
+        SkinProvider.saveImageCache();
+        if (chunkEncodingExecutor != null) {
+            chunkEncodingExecutor.shutdown();
+        }
+        if (loginExecutor != null) {
+            loginExecutor.shutdown();
+        }
         bedrockServer.close();
         if (skinUploader != null) {
             skinUploader.close();
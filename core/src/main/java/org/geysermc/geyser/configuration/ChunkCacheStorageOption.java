@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2019-2022 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.configuration;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+
+/**
+ * How each session's chunk cache stores the Java block sections it receives.
+ */
+public enum ChunkCacheStorageOption {
+    /**
+     * Keeps the palettes as read from the Java packet.
+     */
+    PALETTE,
+    /**
+     * Packs each section into a single palette array and storage array.
+     */
+    COMPACT,
+    /**
+     * Same as {@link #COMPACT}, but keeps the storage arrays in pooled off-heap memory.
+     */
+    OFF_HEAP;
+
+    public static class Deserializer extends JsonDeserializer<ChunkCacheStorageOption> {
+        @Override
+        public ChunkCacheStorageOption deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            String value = p.getValueAsString();
+            return switch (value) {
+                case "compact" -> COMPACT;
+                case "off-heap" -> OFF_HEAP;
+                case "palette" -> PALETTE;
+                default -> {
+                    System.err.println("Unknown chunk-cache-storage value \"" + value + "\"; falling back to palette.");
+                    yield PALETTE;
+                }
+            };
+        }
+    }
+}
@@ -95,10 +95,14 @@ public interface GeyserConfiguration {
 
     boolean isForceResourcePacks();
 
+    int getResourcePackChunkSize();
+
     boolean isXboxAchievementsEnabled();
 
     int getCacheImages();
 
+    int getCacheImagesMaxSize();
+
     boolean isAllowCustomSkulls();
 
     IMetricsInfo getMetrics();
@@ -178,6 +182,26 @@ public interface GeyserConfiguration {
 
     boolean isUseDirectConnection();
 
+    boolean isUseClientBlobCache();
+
+    int getTranslatedSectionCacheSize();
+
+    int getChunkEncodingThreads();
+
+    int getLoginThreads();
+
+    ChunkCacheStorageOption getChunkCacheStorage();
+
+    boolean isUseSharedChunkStore();
+
+    int getTranslatedItemCacheSize();
+
+    boolean isCoalesceEntityMovement();
+
+    int getEntityLodDistance();
+
+    int getEntityLodUpdateInterval();
+
     int getConfigVersion();
 
     static void checkGeyserConfiguration(GeyserConfiguration geyserConfig, GeyserLogger geyserLogger) {
@@ -127,6 +127,9 @@ public abstract class GeyserJacksonConfiguration implements GeyserConfiguration
     @JsonProperty("cache-images")
     private int cacheImages = 0;
 
+    @JsonProperty("cache-images-max-size")
+    private int cacheImagesMaxSize = 128;
+
     @JsonProperty("allow-custom-skulls")
     private boolean allowCustomSkulls = true;
 
@@ -139,6 +142,9 @@ public abstract class GeyserJacksonConfiguration implements GeyserConfiguration
     @JsonProperty("force-resource-packs")
     private boolean forceResourcePacks = true;
 
+    @JsonProperty("resource-pack-chunk-size")
+    private int resourcePackChunkSize = 100;
+
     @JsonProperty("xbox-achievements-enabled")
     private boolean xboxAchievementsEnabled = false;
 
@@ -256,6 +262,37 @@ public abstract class GeyserJacksonConfiguration implements GeyserConfiguration
     @JsonProperty("use-direct-connection")
     private boolean useDirectConnection = true;
 
+    @JsonProperty("use-client-blob-cache")
+    private boolean useClientBlobCache = true;
+
+    @JsonProperty("translated-section-cache-size")
+    private int translatedSectionCacheSize = 32;
+
+    @JsonProperty("chunk-encoding-threads")
+    private int chunkEncodingThreads = -1;
+
+    @JsonProperty("login-threads")
+    private int loginThreads = -1;
+
+    @JsonProperty("chunk-cache-storage")
+    @JsonDeserialize(using = ChunkCacheStorageOption.Deserializer.class)
+    private ChunkCacheStorageOption chunkCacheStorage = ChunkCacheStorageOption.PALETTE;
+
+    @JsonProperty("use-shared-chunk-store")
+    private boolean useSharedChunkStore = false;
+
+    @JsonProperty("translated-item-cache-size")
+    private int translatedItemCacheSize = 2048;
+
+    @JsonProperty("coalesce-entity-movement")
+    private boolean coalesceEntityMovement = false;
+
+    @JsonProperty("entity-lod-distance")
+    private int entityLodDistance = 0;
+
+    @JsonProperty("entity-lod-update-interval")
+    private int entityLodUpdateInterval = 5;
+
     @JsonProperty("config-version")
     private int configVersion = 0;
 
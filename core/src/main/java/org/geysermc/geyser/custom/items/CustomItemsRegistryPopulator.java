@@ -72,7 +72,7 @@ public class CustomItemsRegistryPopulator {
 
             itemMappings.getItemEntries().add(new StartGamePacket.ItemEntry(customItemName, (short) customItemId, true));
 
-            itemMappings.getItems().put(customItemId, ItemMapping.builder()
+            itemMappings.addMapping(customItemId, ItemMapping.builder()
                     .javaIdentifier(baseItem)
                     .bedrockIdentifier(customItemName)
                     .javaId(javaCustomItemId)
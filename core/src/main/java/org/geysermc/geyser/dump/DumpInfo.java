@@ -27,6 +27,7 @@ package org.geysermc.geyser.dump;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.cache.CacheStats;
 import com.google.common.hash.Hashing;
 import com.google.common.io.ByteSource;
 import com.google.common.io.Files;
@@ -39,10 +40,24 @@ import org.geysermc.geyser.GeyserImpl;
 import org.geysermc.geyser.api.GeyserApi;
 import org.geysermc.geyser.api.extension.Extension;
 import org.geysermc.geyser.text.AsteriskSerializer;
+import org.geysermc.geyser.configuration.ChunkCacheStorageOption;
 import org.geysermc.geyser.configuration.GeyserConfiguration;
+import org.geysermc.geyser.inventory.updater.InventoryUpdater;
+import org.geysermc.geyser.level.chunk.SharedChunkStore;
+import org.geysermc.geyser.level.chunk.TranslatedSectionCache;
+import org.geysermc.geyser.level.map.SharedMapStore;
 import org.geysermc.geyser.network.GameProtocol;
 import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.session.cache.ChunkCache;
+import org.geysermc.geyser.skin.ImageCache;
+import org.geysermc.geyser.skin.SkinProvider;
+import org.geysermc.geyser.translator.inventory.item.TranslatedItemCache;
+import org.geysermc.geyser.translator.protocol.java.JavaCommandsTranslator;
+import org.geysermc.geyser.translator.protocol.java.JavaUpdateRecipesTranslator;
+import org.geysermc.geyser.translator.text.MessageTranslator;
 import org.geysermc.geyser.util.FileUtils;
+import org.geysermc.geyser.util.LatencyRecorder;
+import org.geysermc.geyser.util.LoginEncryptionUtils;
 import org.geysermc.geyser.util.WebUtils;
 import org.geysermc.floodgate.util.DeviceOs;
 import org.geysermc.floodgate.util.FloodgateInfoHolder;
@@ -57,6 +72,11 @@ import java.net.Socket;
 import java.net.UnknownHostException;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Getter
@@ -70,11 +90,15 @@ public class DumpInfo {
     private final GeyserConfiguration config;
     private final Floodgate floodgate;
     private final Object2IntMap<DeviceOs> userPlatforms;
+    private long suppressedEntityUpdates;
+    private final long skippedInventorySlots;
     private final HashInfo hashInfo;
     private final RamInfo ramInfo;
     private LogsInfo logsInfo;
     private final BootstrapDumpInfo bootstrapInfo;
     private final FlagsInfo flagsInfo;
+    private final CacheInfo cacheInfo;
+    private final LoginInfo loginInfo;
     private final List<ExtensionInfo> extensionInfo;
 
     public DumpInfo(boolean addLog) {
@@ -120,12 +144,18 @@ public class DumpInfo {
         for (GeyserSession session : GeyserImpl.getInstance().getSessionManager().getAllSessions()) {
             DeviceOs device = session.getClientData().getDeviceOs();
             userPlatforms.put(device, userPlatforms.getOrDefault(device, 0) + 1);
+            suppressedEntityUpdates += session.getEntityCache().getSuppressedUpdates();
         }
+        this.skippedInventorySlots = InventoryUpdater.skippedSlots();
 
         this.bootstrapInfo = GeyserImpl.getInstance().getBootstrap().getDumpInfo();
 
         this.flagsInfo = new FlagsInfo();
 
+        this.cacheInfo = new CacheInfo();
+
+        this.loginInfo = new LoginInfo();
+
         this.extensionInfo = new ArrayList<>();
         for (Extension extension : GeyserApi.api().extensionManager().extensions()) {
             this.extensionInfo.add(new ExtensionInfo(extension.isEnabled(), extension.name(), extension.description().version(), extension.description().apiVersion(), extension.description().main(), extension.description().authors()));
@@ -283,6 +313,132 @@ public class DumpInfo {
         }
     }
 
+    /**
+     * Statistics of caches shared between sessions
+     */
+    @Getter
+    public static class CacheInfo {
+        private final CacheStatsInfo translatedChunkSections;
+        private final CacheStatsInfo translatedItems;
+        private final CacheStatsInfo translatedMessages;
+        private final CacheStatsInfo translatedRecipes;
+        private final CacheStatsInfo translatedCommands;
+        private final long plainTextMessages;
+        private final ChunkCacheInfo chunkCache;
+        private final long sharedMaps;
+        private final ImageCacheInfo images;
+
+        CacheInfo() {
+            this.translatedChunkSections = CacheStatsInfo.from(TranslatedSectionCache.stats(), TranslatedSectionCache.size());
+            this.translatedItems = CacheStatsInfo.from(TranslatedItemCache.stats(), TranslatedItemCache.size());
+            this.translatedMessages = CacheStatsInfo.from(MessageTranslator.cacheStats(), MessageTranslator.cacheSize());
+            this.plainTextMessages = MessageTranslator.plainTextMessages();
+            this.translatedRecipes = CacheStatsInfo.from(JavaUpdateRecipesTranslator.cacheStats(), JavaUpdateRecipesTranslator.cacheSize());
+            this.translatedCommands = CacheStatsInfo.from(JavaCommandsTranslator.cacheStats(), JavaCommandsTranslator.cacheSize());
+            this.chunkCache = new ChunkCacheInfo();
+            this.sharedMaps = SharedMapStore.size();
+            ImageCache imageCache = SkinProvider.getImageCache();
+            this.images = imageCache != null ? new ImageCacheInfo(imageCache.size(), imageCache.totalSize() / 1024) : null;
+        }
+    }
+
+    /**
+     * How long recent logins took to be verified, in milliseconds
+     */
+    @Getter
+    public static class LoginInfo {
+        private final long logins;
+        private final long p50;
+        private final long p90;
+        private final long p99;
+        private final long max;
+
+        LoginInfo() {
+            LatencyRecorder latency = LoginEncryptionUtils.getLoginLatency();
+            this.logins = latency.count();
+            long[] percentiles = latency.percentiles(50, 90, 99, 100);
+            this.p50 = percentiles[0];
+            this.p90 = percentiles[1];
+            this.p99 = percentiles[2];
+            this.max = percentiles[3];
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ImageCacheInfo {
+        private final int images;
+        private final long kilobytes;
+    }
+
+    /**
+     * The memory used by each player's chunk cache, largest first
+     */
+    @Getter
+    public static class ChunkCacheInfo {
+        private final ChunkCacheStorageOption storage;
+        private final int sharedChunks;
+        private final List<ChunkCacheUsageInfo> sessions;
+
+        ChunkCacheInfo() {
+            this.storage = GeyserImpl.getInstance().getConfig().getChunkCacheStorage();
+            this.sharedChunks = SharedChunkStore.size();
+            this.sessions = new ArrayList<>();
+
+            // Chunk caches are only safe to walk on their session's event loop
+            List<Future<ChunkCache.MemoryUsage>> usages = new ArrayList<>();
+            for (GeyserSession session : GeyserImpl.getInstance().getSessionManager().getAllSessions()) {
+                if (session.isClosed() || session.getEventLoop().isShuttingDown()) {
+                    continue;
+                }
+                if (session.getEventLoop().inEventLoop()) {
+                    usages.add(CompletableFuture.completedFuture(session.getChunkCache().getMemoryUsage()));
+                } else {
+                    usages.add(session.getEventLoop().submit(() -> session.getChunkCache().getMemoryUsage()));
+                }
+            }
+            for (Future<ChunkCache.MemoryUsage> future : usages) {
+                try {
+                    ChunkCache.MemoryUsage usage = future.get(5, TimeUnit.SECONDS);
+                    this.sessions.add(new ChunkCacheUsageInfo(usage.chunks(), usage.heapBytes() / 1024, usage.offHeapBytes() / 1024));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (ExecutionException | TimeoutException e) {
+                    // The session went away or its event loop is stuck; leave it out of the dump
+                }
+            }
+            this.sessions.sort(Comparator.comparingLong((ChunkCacheUsageInfo info) -> info.heapKilobytes + info.offHeapKilobytes).reversed());
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ChunkCacheUsageInfo {
+        private final int chunks;
+        private final long heapKilobytes;
+        private final long offHeapKilobytes;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class CacheStatsInfo {
+        private final long size;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+
+        /**
+         * @return the statistics of a Guava cache, or null if that cache is disabled
+         */
+        static CacheStatsInfo from(CacheStats stats, long size) {
+            if (stats == null) {
+                return null;
+            }
+            return new CacheStatsInfo(size, stats.hitCount(), stats.missCount(), stats.evictionCount());
+        }
+    }
+
     @Getter
     @AllArgsConstructor
     public static class ExtensionInfo {
@@ -27,29 +27,129 @@ package org.geysermc.geyser.entity;
 
 import com.nukkitx.protocol.bedrock.data.entity.EntityData;
 import com.nukkitx.protocol.bedrock.data.entity.EntityDataMap;
-import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
 
-import java.util.Map;
+import java.util.Arrays;
+import java.util.Set;
 
 /**
  * A write-only wrapper for temporarily storing entity metadata that will be sent to Bedrock.
+ * <p>
+ * Entries are looked up by the ordinal of their {@link EntityData} and primitive values are stored unboxed,
+ * so setting the same metadata several times before it's sent doesn't allocate. Values are only boxed once
+ * when they're applied to the outgoing packet, with the same wrapper type the caller passed in.
  */
 public final class GeyserDirtyMetadata {
-    private final Map<EntityData, Object> metadata = new Object2ObjectLinkedOpenHashMap<>();
+    private static final EntityData[] ENTITY_DATA = EntityData.values();
+
+    private static final byte OBJECT = 0;
+    private static final byte BYTE = 1;
+    private static final byte SHORT = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte FLOAT = 5;
+
+    /**
+     * The index of each entity data in the arrays below plus one, or 0 if it isn't set.
+     */
+    private final byte[] indexes = new byte[ENTITY_DATA.length];
+
+    private EntityData[] keys = new EntityData[8];
+    private byte[] types = new byte[8];
+    private long[] primitives = new long[8];
+    private Object[] objects = new Object[8];
+    private int size;
 
     public void put(EntityData entityData, Object value) {
-        metadata.put(entityData, value);
+        int index = indexOf(entityData);
+        types[index] = OBJECT;
+        objects[index] = value;
+    }
+
+    public void put(EntityData entityData, byte value) {
+        putPrimitive(entityData, BYTE, value);
+    }
+
+    public void put(EntityData entityData, short value) {
+        putPrimitive(entityData, SHORT, value);
+    }
+
+    public void put(EntityData entityData, int value) {
+        putPrimitive(entityData, INT, value);
+    }
+
+    public void put(EntityData entityData, long value) {
+        putPrimitive(entityData, LONG, value);
+    }
+
+    public void put(EntityData entityData, float value) {
+        putPrimitive(entityData, FLOAT, Float.floatToRawIntBits(value));
+    }
+
+    private void putPrimitive(EntityData entityData, byte type, long value) {
+        int index = indexOf(entityData);
+        types[index] = type;
+        primitives[index] = value;
+        objects[index] = null;
+    }
+
+    private int indexOf(EntityData entityData) {
+        int ordinal = entityData.ordinal();
+        int index = (indexes[ordinal] & 0xFF) - 1;
+        if (index != -1) {
+            return index;
+        }
+
+        if (size == keys.length) {
+            int capacity = size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            types = Arrays.copyOf(types, capacity);
+            primitives = Arrays.copyOf(primitives, capacity);
+            objects = Arrays.copyOf(objects, capacity);
+        }
+        index = size++;
+        keys[index] = entityData;
+        indexes[ordinal] = (byte) (index + 1);
+        return index;
     }
 
     /**
-     * Applies the contents of the dirty metadata into the input and clears the contents of our map.
+     * Applies the contents of the dirty metadata into the input and clears our contents.
      */
     public void apply(EntityDataMap map) {
-        map.putAll(metadata);
-        metadata.clear();
+        for (int i = 0; i < size; i++) {
+            map.put(keys[i], value(i));
+            indexes[keys[i].ordinal()] = 0;
+            keys[i] = null;
+            objects[i] = null;
+        }
+        size = 0;
+    }
+
+    private Object value(int index) {
+        long value = primitives[index];
+        return switch (types[index]) {
+            case BYTE -> (byte) value;
+            case SHORT -> (short) value;
+            case INT -> (int) value;
+            case LONG -> value;
+            case FLOAT -> Float.intBitsToFloat((int) value);
+            default -> objects[index];
+        };
     }
 
     public boolean hasEntries() {
-        return !metadata.isEmpty();
+        return size != 0;
+    }
+
+    /**
+     * @return true if every entry waiting to be sent is one of the given types
+     */
+    public boolean containsOnly(Set<EntityData> entityData) {
+        for (int i = 0; i < size; i++) {
+            if (!entityData.contains(keys[i])) {
+                return false;
+            }
+        }
+        return true;
     }
 }
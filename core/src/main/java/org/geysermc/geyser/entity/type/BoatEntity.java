@@ -98,6 +98,7 @@ public class BoatEntity extends Entity {
         moveEntityPacket.setTeleported(teleported);
 
         session.sendUpstreamPacket(moveEntityPacket);
+        invalidateSentMovement();
     }
 
     /**
@@ -45,6 +45,7 @@ import net.kyori.adventure.text.Component;
 import org.geysermc.geyser.entity.EntityDefinition;
 import org.geysermc.geyser.entity.GeyserDirtyMetadata;
 import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.session.cache.EntityCache;
 import org.geysermc.geyser.translator.text.MessageTranslator;
 import org.geysermc.geyser.util.EntityUtils;
 import org.geysermc.geyser.util.InteractionResult;
@@ -52,13 +53,20 @@ import org.geysermc.geyser.util.InteractiveTag;
 import org.geysermc.geyser.util.MathUtils;
 
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Getter
 @Setter
 public class Entity {
+    /**
+     * Metadata that only affects how the entity looks, and can be sent at a reduced rate when it's far away.
+     */
+    private static final Set<EntityData> COSMETIC_METADATA = EnumSet.of(EntityData.AIR_SUPPLY, EntityData.FREEZING_EFFECT_STRENGTH);
+
     protected final GeyserSession session;
 
     protected int entityId;
@@ -116,6 +124,35 @@ public class Entity {
     @Setter(AccessLevel.PROTECTED) // For players
     private boolean flagsDirty = false;
 
+    /**
+     * The position and rotation last sent to the Bedrock client, so coalesced movement only includes the changed fields.
+     * Null if the client's state is unknown.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Vector3f lastSentPosition;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Vector3f lastSentRotation;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean lastSentOnGround;
+    /**
+     * Indicates if this entity moved and the update is waiting in {@link EntityCache}.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean movementPending;
+    /**
+     * Indicates if cosmetic metadata or motion were held back because this entity is far away from the player.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean metadataPending;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean motionPending;
+
     public Entity(GeyserSession session, int entityId, long geyserId, UUID uuid, EntityDefinition<?> definition, Vector3f position, Vector3f motion, float yaw, float pitch, float headYaw) {
         this.session = session;
 
@@ -214,14 +251,7 @@ public class Entity {
         setOnGround(isOnGround);
         this.position = Vector3f.from(position.getX() + relX, position.getY() + relY, position.getZ() + relZ);
 
-        MoveEntityAbsolutePacket moveEntityPacket = new MoveEntityAbsolutePacket();
-        moveEntityPacket.setRuntimeEntityId(geyserId);
-        moveEntityPacket.setPosition(position);
-        moveEntityPacket.setRotation(getBedrockRotation());
-        moveEntityPacket.setOnGround(isOnGround);
-        moveEntityPacket.setTeleported(false);
-
-        session.sendUpstreamPacket(moveEntityPacket);
+        sendMovement(false);
     }
 
     public void moveAbsolute(Vector3f position, float yaw, float pitch, boolean isOnGround, boolean teleported) {
@@ -236,14 +266,149 @@ public class Entity {
         setHeadYaw(headYaw);
         setOnGround(isOnGround);
 
+        sendMovement(teleported);
+    }
+
+    /**
+     * Sends the current position and rotation of this entity to the Bedrock client. If entity movement is coalesced,
+     * the update is instead sent once at the end of the tick, no matter how often the entity moved in between.
+     * Entities far away from the player are only updated every few ticks.
+     *
+     * @param teleported if the entity was teleported. Teleports are always sent immediately.
+     */
+    protected void sendMovement(boolean teleported) {
+        if (!teleported) {
+            EntityCache entityCache = session.getEntityCache();
+            boolean throttled = entityCache.isThrottled(this);
+            if (throttled || entityCache.isCoalesceMovement()) {
+                if (!movementPending) {
+                    queuePendingUpdate();
+                    movementPending = true;
+                } else if (throttled) {
+                    entityCache.countSuppressedUpdate();
+                }
+                return;
+            }
+        }
+
+        movementPending = false;
+        sendAbsoluteMovement(getBedrockRotation(), teleported);
+    }
+
+    /**
+     * Sends the movement, metadata and motion held back by {@link EntityCache}.
+     */
+    public void flushPendingUpdates() {
+        flushMovement();
+
+        if (metadataPending) {
+            metadataPending = false;
+            if (valid) {
+                sendBedrockMetadata();
+            }
+        }
+
+        if (motionPending) {
+            motionPending = false;
+            if (valid) {
+                sendBedrockMotion();
+            }
+        }
+    }
+
+    public boolean hasPendingUpdates() {
+        return movementPending || metadataPending || motionPending;
+    }
+
+    private void queuePendingUpdate() {
+        if (!hasPendingUpdates()) {
+            session.getEntityCache().queuePendingUpdate(this);
+        }
+    }
+
+    /**
+     * Sends the movement queued by {@link #sendMovement(boolean)}. Only the fields that changed since the
+     * last update are included, and nothing is sent if the entity ended up where it started.
+     */
+    private void flushMovement() {
+        if (!movementPending) {
+            return;
+        }
+        movementPending = false;
+        if (!valid) {
+            return;
+        }
+
+        Vector3f rotation = getBedrockRotation();
+        if (lastSentPosition == null || lastSentRotation == null) {
+            sendAbsoluteMovement(rotation, false);
+            return;
+        }
+
+        MoveEntityDeltaPacket moveEntityDeltaPacket = new MoveEntityDeltaPacket();
+        moveEntityDeltaPacket.setRuntimeEntityId(geyserId);
+
+        if (lastSentPosition.getX() != position.getX()) {
+            moveEntityDeltaPacket.getFlags().add(MoveEntityDeltaPacket.Flag.HAS_X);
+            moveEntityDeltaPacket.setX(position.getX());
+        }
+        if (lastSentPosition.getY() != position.getY()) {
+            moveEntityDeltaPacket.getFlags().add(MoveEntityDeltaPacket.Flag.HAS_Y);
+            moveEntityDeltaPacket.setY(position.getY());
+        }
+        if (lastSentPosition.getZ() != position.getZ()) {
+            moveEntityDeltaPacket.getFlags().add(MoveEntityDeltaPacket.Flag.HAS_Z);
+            moveEntityDeltaPacket.setZ(position.getZ());
+        }
+        if (lastSentRotation.getX() != rotation.getX()) {
+            moveEntityDeltaPacket.getFlags().add(MoveEntityDeltaPacket.Flag.HAS_PITCH);
+            moveEntityDeltaPacket.setPitch(rotation.getX());
+        }
+        if (lastSentRotation.getY() != rotation.getY()) {
+            moveEntityDeltaPacket.getFlags().add(MoveEntityDeltaPacket.Flag.HAS_YAW);
+            moveEntityDeltaPacket.setYaw(rotation.getY());
+        }
+        if (lastSentRotation.getZ() != rotation.getZ()) {
+            moveEntityDeltaPacket.getFlags().add(MoveEntityDeltaPacket.Flag.HAS_HEAD_YAW);
+            moveEntityDeltaPacket.setHeadYaw(rotation.getZ());
+        }
+
+        if (moveEntityDeltaPacket.getFlags().isEmpty() && lastSentOnGround == onGround) {
+            // Nothing the client doesn't already know
+            return;
+        }
+        if (onGround) {
+            moveEntityDeltaPacket.getFlags().add(MoveEntityDeltaPacket.Flag.ON_GROUND);
+        }
+
+        session.sendUpstreamPacket(moveEntityDeltaPacket);
+        lastSentPosition = position;
+        lastSentRotation = rotation;
+        lastSentOnGround = onGround;
+    }
+
+    /**
+     * Must be called when a subclass sends its own movement packet for this entity, so any movement still queued
+     * for this tick is dropped and the next one is sent in full.
+     */
+    protected void invalidateSentMovement() {
+        movementPending = false;
+        lastSentPosition = null;
+        lastSentRotation = null;
+    }
+
+    private void sendAbsoluteMovement(Vector3f rotation, boolean teleported) {
         MoveEntityAbsolutePacket moveEntityPacket = new MoveEntityAbsolutePacket();
         moveEntityPacket.setRuntimeEntityId(geyserId);
         moveEntityPacket.setPosition(position);
-        moveEntityPacket.setRotation(getBedrockRotation());
-        moveEntityPacket.setOnGround(isOnGround);
+        moveEntityPacket.setRotation(rotation);
+        moveEntityPacket.setOnGround(onGround);
         moveEntityPacket.setTeleported(teleported);
 
         session.sendUpstreamPacket(moveEntityPacket);
+        lastSentPosition = position;
+        lastSentRotation = rotation;
+        lastSentOnGround = onGround;
     }
 
     /**
@@ -307,6 +472,25 @@ public class Entity {
             return;
         }
 
+        if (!flagsDirty && dirtyMetadata.hasEntries() && dirtyMetadata.containsOnly(COSMETIC_METADATA)) {
+            EntityCache entityCache = session.getEntityCache();
+            if (entityCache.isThrottled(this)) {
+                // Nobody will notice this far away, so it can wait
+                if (!metadataPending) {
+                    queuePendingUpdate();
+                    metadataPending = true;
+                } else {
+                    entityCache.countSuppressedUpdate();
+                }
+                return;
+            }
+        }
+
+        metadataPending = false;
+        sendBedrockMetadata();
+    }
+
+    private void sendBedrockMetadata() {
         if (dirtyMetadata.hasEntries() || flagsDirty) {
             SetEntityDataPacket entityDataPacket = new SetEntityDataPacket();
             entityDataPacket.setRuntimeEntityId(geyserId);
@@ -319,6 +503,34 @@ public class Entity {
         }
     }
 
+    /**
+     * Sends the motion of this entity to the Bedrock client. Entities far away from the player only get their latest
+     * motion sent every few ticks.
+     */
+    public void updateBedrockMotion() {
+        EntityCache entityCache = session.getEntityCache();
+        if (entityCache.isThrottled(this)) {
+            if (!motionPending) {
+                queuePendingUpdate();
+                motionPending = true;
+            } else {
+                entityCache.countSuppressedUpdate();
+            }
+            return;
+        }
+
+        motionPending = false;
+        sendBedrockMotion();
+    }
+
+    private void sendBedrockMotion() {
+        SetEntityMotionPacket entityMotionPacket = new SetEntityMotionPacket();
+        entityMotionPacket.setRuntimeEntityId(geyserId);
+        entityMotionPacket.setMotion(motion);
+
+        session.sendUpstreamPacket(entityMotionPacket);
+    }
+
     public void setFlags(ByteEntityMetadata entityMetadata) {
         byte xd = entityMetadata.getPrimitiveValue();
         setFlag(EntityFlag.ON_FIRE, ((xd & 0x01) == 0x01) && !getFlag(EntityFlag.FIRE_IMMUNE)); // Otherwise immune entities sometimes flicker onfire
@@ -36,8 +36,8 @@ import org.geysermc.geyser.entity.type.player.PlayerEntity;
 import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.level.physics.BoundingBox;
 import org.geysermc.geyser.translator.collision.BlockCollision;
+import org.geysermc.geyser.level.block.BlockStateFlags;
 import org.geysermc.geyser.level.block.BlockStateValues;
-import org.geysermc.geyser.registry.BlockRegistries;
 import org.geysermc.geyser.level.block.BlockPositionIterator;
 import org.geysermc.geyser.util.BlockUtils;
 
@@ -101,7 +101,7 @@ public class FishingHookEntity extends ThrowableEntity {
             }
 
             int waterLevel = BlockStateValues.getWaterLevel(blockID);
-            if (BlockRegistries.WATERLOGGED.get().contains(blockID)) {
+            if (BlockStateFlags.isWaterlogged(blockID)) {
                 waterLevel = 0;
             }
             if (waterLevel >= 0) {
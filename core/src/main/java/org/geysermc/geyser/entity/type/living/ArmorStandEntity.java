@@ -443,5 +443,6 @@ public class ArmorStandEntity extends LivingEntity {
         moveEntityPacket.setOnGround(onGround);
         moveEntityPacket.setTeleported(false);
         session.sendUpstreamPacket(moveEntityPacket);
+        invalidateSentMovement();
     }
 }
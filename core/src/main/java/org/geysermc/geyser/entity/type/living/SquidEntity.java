@@ -75,6 +75,7 @@ public class SquidEntity extends WaterEntity implements Tickable {
             }
 
             session.sendUpstreamPacket(packet);
+            invalidateSentMovement();
         }
     }
 
@@ -154,6 +154,7 @@ public class VillagerEntity extends AbstractMerchantEntity {
         moveEntityPacket.setOnGround(isOnGround);
         moveEntityPacket.setTeleported(false);
         session.sendUpstreamPacket(moveEntityPacket);
+        invalidateSentMovement();
     }
 
     public static int getBedrockProfession(int javaProfession) {
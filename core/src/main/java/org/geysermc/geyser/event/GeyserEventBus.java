@@ -25,9 +25,8 @@
 
 package org.geysermc.geyser.event;
 
-import net.kyori.event.EventSubscriber;
-import net.kyori.event.SimpleEventBus;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.geysermc.geyser.GeyserImpl;
 import org.geysermc.geyser.api.event.Event;
 import org.geysermc.geyser.api.event.EventBus;
 import org.geysermc.geyser.api.event.EventSubscription;
@@ -37,16 +36,26 @@ import org.lanternpowered.lmbda.LambdaFactory;
 
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 public class GeyserEventBus implements EventBus {
     private static final MethodHandles.Lookup CALLER = MethodHandles.lookup();
-
-    private final SimpleEventBus<Event> bus = new SimpleEventBus<>(Event.class);
+    private static final AbstractEventSubscription<?>[] NO_SUBSCRIPTIONS = new AbstractEventSubscription<?>[0];
+    private static final Comparator<AbstractEventSubscription<?>> POST_ORDER = Comparator.comparingInt(AbstractEventSubscription::postOrder);
+
+    /**
+     * All subscriptions, in the order they were registered. Guarded by itself.
+     */
+    private final List<AbstractEventSubscription<?>> subscriptions = new ArrayList<>();
+    /**
+     * The subscriptions that receive each event class, including those subscribed to one of its supertypes,
+     * already sorted by post order. Only written while holding {@link #subscriptions}, and cleared whenever a
+     * subscription is added or removed.
+     */
+    private final Map<Class<?>, AbstractEventSubscription<?>[]> dispatchCache = new ConcurrentHashMap<>();
 
     @NonNull
     @Override
@@ -56,7 +65,11 @@ public class GeyserEventBus implements EventBus {
 
     @Override
     public <T extends Event> void unsubscribe(@NonNull EventSubscription<T> subscription) {
-        this.bus.unregister((AbstractEventSubscription<T>) subscription);
+        synchronized (this.subscriptions) {
+            if (this.subscriptions.remove(subscription)) {
+                this.dispatchCache.clear();
+            }
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -81,41 +94,100 @@ public class GeyserEventBus implements EventBus {
                 Class<? extends Event> type = (Class<? extends Event>) method.getParameters()[0].getType();
                 this.subscribe(type, eventHolder, LambdaFactory.createBiConsumer(CALLER.unreflect(method)), extension, subscribe.postOrder());
             } catch (IllegalAccessException ex) {
-                ex.printStackTrace();
+                GeyserImpl.getInstance().getLogger().error("Could not register event handler " + method.getName()
+                        + " of extension " + extension.name(), ex);
             }
         }
     }
 
     @Override
     public void unregisterAll(@NonNull Extension extension) {
-        this.bus.unregister((Predicate<EventSubscriber<?>>) subscriber -> extension.equals(((AbstractEventSubscription<?>) subscriber).owner()));
+        synchronized (this.subscriptions) {
+            if (this.subscriptions.removeIf(subscription -> extension.equals(subscription.owner()))) {
+                this.dispatchCache.clear();
+            }
+        }
     }
 
+    @SuppressWarnings({"unchecked", "rawtypes"})
     @Override
     public boolean fire(@NonNull Event event) {
-        return this.bus.post(event).wasSuccessful();
+        boolean success = true;
+        for (AbstractEventSubscription subscription : this.subscriptionsFor(event.getClass())) {
+            try {
+                subscription.invoke(event);
+            } catch (Throwable ex) {
+                GeyserImpl.getInstance().getLogger().error("Could not pass " + event.getClass().getSimpleName()
+                        + " to extension " + subscription.owner().name(), ex);
+                success = false;
+            }
+        }
+        return success;
+    }
+
+    @Override
+    public boolean hasSubscriptions(@NonNull Class<? extends Event> eventClass) {
+        return this.subscriptionsFor(eventClass).length != 0;
     }
 
     @SuppressWarnings("unchecked")
     @NonNull
     @Override
     public <T extends Event> Set<EventSubscription<T>> subscriptions(@NonNull Class<T> eventClass) {
-        return bus.subscribers().values()
-                .stream()
-                .filter(sub -> sub instanceof EventSubscription && ((EventSubscription<?>) sub).eventClass().isAssignableFrom(eventClass))
-                .map(sub -> ((EventSubscription<T>) sub))
-                .collect(Collectors.toSet());
+        Set<EventSubscription<T>> subscriptions = new HashSet<>();
+        for (AbstractEventSubscription<?> subscription : this.subscriptionsFor(eventClass)) {
+            subscriptions.add((EventSubscription<T>) subscription);
+        }
+        return subscriptions;
+    }
+
+    private AbstractEventSubscription<?>[] subscriptionsFor(Class<?> eventClass) {
+        AbstractEventSubscription<?>[] baked = this.dispatchCache.get(eventClass);
+        if (baked != null) {
+            return baked;
+        }
+
+        // Not computeIfAbsent, as that would wait for the subscriptions while holding a lock of the map that
+        // register and unsubscribe need to clear it
+        synchronized (this.subscriptions) {
+            baked = this.bakeSubscriptions(eventClass);
+            this.dispatchCache.put(eventClass, baked);
+            return baked;
+        }
+    }
+
+    /**
+     * Collects the subscriptions that an event of the given class should be posted to.
+     * Must be called while holding {@link #subscriptions}.
+     */
+    private AbstractEventSubscription<?>[] bakeSubscriptions(Class<?> eventClass) {
+        List<AbstractEventSubscription<?>> matching = new ArrayList<>();
+        for (AbstractEventSubscription<?> subscription : this.subscriptions) {
+            if (subscription.eventClass().isAssignableFrom(eventClass)) {
+                matching.add(subscription);
+            }
+        }
+        if (matching.isEmpty()) {
+            return NO_SUBSCRIPTIONS;
+        }
+        // Stable, so subscriptions with the same post order are called in the order they were registered
+        matching.sort(POST_ORDER);
+        return matching.toArray(NO_SUBSCRIPTIONS);
     }
 
     private <T extends Event> EventSubscription<T> subscribe(Class<T> eventClass, Consumer<? super T> handler, Extension extension, Subscribe.PostOrder postOrder) {
-        BaseEventSubscription<T> eventSubscription = new BaseEventSubscription<>(this, eventClass, extension, postOrder, handler);
-        this.bus.register(eventClass, eventSubscription);
-        return eventSubscription;
+        return this.register(new BaseEventSubscription<>(this, eventClass, extension, postOrder, handler));
     }
 
     private <T extends Event> EventSubscription<T> subscribe(Class<T> eventClass, Object eventHolder, BiConsumer<Object, ? super T> handler, Extension extension, Subscribe.PostOrder postOrder) {
-        GeneratedEventSubscription<T> eventSubscription = new GeneratedEventSubscription<>(this, eventClass, extension, postOrder, eventHolder, handler);
-        this.bus.register(eventClass, eventSubscription);
+        return this.register(new GeneratedEventSubscription<>(this, eventClass, extension, postOrder, eventHolder, handler));
+    }
+
+    private <T extends Event> EventSubscription<T> register(AbstractEventSubscription<T> eventSubscription) {
+        synchronized (this.subscriptions) {
+            this.subscriptions.add(eventSubscription);
+            this.dispatchCache.clear();
+        }
         return eventSubscription;
     }
 }
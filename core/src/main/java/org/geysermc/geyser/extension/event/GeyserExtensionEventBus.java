@@ -79,6 +79,11 @@ public record GeyserExtensionEventBus(EventBus eventBus,
         return this.eventBus.fire(event);
     }
 
+    @Override
+    public boolean hasSubscriptions(@NonNull Class<? extends Event> eventClass) {
+        return this.eventBus.hasSubscriptions(eventClass);
+    }
+
     @NonNull
     @Override
     public <T extends Event> Set<EventSubscription<T>> subscriptions(@NonNull Class<T> eventClass) {
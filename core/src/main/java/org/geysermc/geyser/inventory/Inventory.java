@@ -30,6 +30,7 @@ import com.github.steveice10.opennbt.tag.builtin.ByteTag;
 import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
 import com.github.steveice10.opennbt.tag.builtin.Tag;
 import com.nukkitx.math.vector.Vector3i;
+import com.nukkitx.protocol.bedrock.data.inventory.ItemData;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -90,6 +91,15 @@ public abstract class Inventory {
     @Setter
     private boolean pending = false;
 
+    /**
+     * The Bedrock items last sent for the slots of this container, by Bedrock slot. Null if the client may not be
+     * showing them, such as before the window is opened or after the client moved items itself.
+     */
+    @Getter
+    @Setter
+    @ToString.Exclude
+    private ItemData[] sentItems;
+
     protected Inventory(int id, int size, ContainerType containerType) {
         this("Inventory", id, size, containerType);
     }
@@ -34,8 +34,16 @@ import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.translator.inventory.InventoryTranslator;
 
 import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
 
 public class InventoryUpdater {
+    /**
+     * If more than this share of the container changed, it is sent in one packet instead of slot by slot.
+     */
+    private static final float FULL_UPDATE_THRESHOLD = 0.5f;
+    private static final LongAdder SKIPPED_SLOTS = new LongAdder();
+
     public void updateInventory(InventoryTranslator translator, GeyserSession session, Inventory inventory) {
         ItemData[] bedrockItems = new ItemData[36];
         for (int i = 0; i < 36; i++) {
@@ -59,4 +67,66 @@ public class InventoryUpdater {
         }
         return false;
     }
+
+    /**
+     * Sends the items of the container itself, only sending the slots that changed if the client is known to show
+     * the last items we sent. Menu plugins may refresh the whole container several times a second.
+     *
+     * @param bedrockItems every item of the container, by Bedrock slot
+     */
+    protected static void sendContainerContents(GeyserSession session, Inventory inventory, ItemData[] bedrockItems) {
+        ItemData[] sentItems = inventory.getSentItems();
+        inventory.setSentItems(bedrockItems);
+
+        if (sentItems != null && sentItems.length == bedrockItems.length) {
+            int changed = 0;
+            for (int i = 0; i < bedrockItems.length; i++) {
+                if (!Objects.equals(bedrockItems[i], sentItems[i])) {
+                    changed++;
+                }
+            }
+
+            if (changed <= bedrockItems.length * FULL_UPDATE_THRESHOLD) {
+                SKIPPED_SLOTS.add(bedrockItems.length - changed);
+                for (int i = 0; i < bedrockItems.length; i++) {
+                    if (!Objects.equals(bedrockItems[i], sentItems[i])) {
+                        InventorySlotPacket slotPacket = new InventorySlotPacket();
+                        slotPacket.setContainerId(inventory.getId());
+                        slotPacket.setSlot(i);
+                        slotPacket.setItem(bedrockItems[i]);
+                        session.sendUpstreamPacket(slotPacket);
+                    }
+                }
+                return;
+            }
+        }
+
+        InventoryContentPacket contentPacket = new InventoryContentPacket();
+        contentPacket.setContainerId(inventory.getId());
+        contentPacket.setContents(Arrays.asList(bedrockItems));
+        session.sendUpstreamPacket(contentPacket);
+    }
+
+    /**
+     * Sends one slot of the container itself, keeping track of it for {@link #sendContainerContents(GeyserSession, Inventory, ItemData[])}.
+     */
+    protected static void sendContainerSlot(GeyserSession session, Inventory inventory, int bedrockSlot, ItemData item) {
+        ItemData[] sentItems = inventory.getSentItems();
+        if (sentItems != null && bedrockSlot >= 0 && bedrockSlot < sentItems.length) {
+            sentItems[bedrockSlot] = item;
+        }
+
+        InventorySlotPacket slotPacket = new InventorySlotPacket();
+        slotPacket.setContainerId(inventory.getId());
+        slotPacket.setSlot(bedrockSlot);
+        slotPacket.setItem(item);
+        session.sendUpstreamPacket(slotPacket);
+    }
+
+    /**
+     * @return how many container slots did not need to be sent again as they had not changed
+     */
+    public static long skippedSlots() {
+        return SKIPPED_SLOTS.sum();
+    }
 }
@@ -276,6 +276,16 @@ public enum MapColor {
     COLOR_247(79, 88, 67);
 
     private static final MapColor[] VALUES = values();
+    /**
+     * The ARGB value of every possible color byte, as maps are converted a pixel at a time
+     */
+    private static final int[] ARGB = new int[256];
+
+    static {
+        for (int i = 0; i < ARGB.length; i++) {
+            ARGB[i] = fromId(i).getARGB();
+        }
+    }
 
     private final int value;
 
@@ -297,4 +307,12 @@ public enum MapColor {
     public int getARGB() {
         return value;
     }
+
+    /**
+     * @param id the color byte from a Java map
+     * @return the ARGB value of this color
+     */
+    public static int toARGB(byte id) {
+        return ARGB[id & 0xFF];
+    }
 }
\ No newline at end of file
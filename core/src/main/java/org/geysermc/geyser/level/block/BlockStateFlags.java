@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2019-2022 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.block;
+
+import org.geysermc.geyser.registry.BlockRegistries;
+
+/**
+ * Attributes of Java block states that are checked for every block of a chunk or on every movement, stored as
+ * bit flags in {@link BlockRegistries#BLOCK_STATE_FLAGS} so each check is a single array read.
+ */
+public final class BlockStateFlags {
+    /**
+     * The block state has water in it, which Bedrock needs as a second block layer.
+     */
+    public static final byte WATERLOGGED = 1;
+    /**
+     * The block state is a flower pot or piston, which are block entities only on Bedrock.
+     */
+    public static final byte BEDROCK_ONLY_BLOCK_ENTITY = 1 << 1;
+    /**
+     * The block state cannot be collided with.
+     */
+    public static final byte NO_COLLISION = 1 << 2;
+
+    private BlockStateFlags() {
+    }
+
+    /**
+     * @return all flags of the given Java block state, or none if the block state is unknown
+     */
+    public static byte get(int javaId) {
+        byte[] flags = BlockRegistries.BLOCK_STATE_FLAGS.get();
+        if (javaId < 0 || javaId >= flags.length) {
+            return 0;
+        }
+        return flags[javaId];
+    }
+
+    public static boolean isWaterlogged(int javaId) {
+        return (get(javaId) & WATERLOGGED) != 0;
+    }
+
+    public static boolean isBedrockOnlyBlockEntity(int javaId) {
+        return (get(javaId) & BEDROCK_ONLY_BLOCK_ENTITY) != 0;
+    }
+
+    public static boolean hasNoCollision(int javaId) {
+        return (get(javaId) & NO_COLLISION) != 0;
+    }
+}
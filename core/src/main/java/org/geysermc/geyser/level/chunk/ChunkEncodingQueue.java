@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2019-2022 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.util.MathUtils;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Encodes chunks for one session off of its event loop, while keeping the order in which chunk packets and other
+ * chunk-related packets are sent to the client.
+ * <p>
+ * Chunks are delivered in the order they were submitted. Work that depends on a chunk that is still being encoded
+ * (such as a block update) should be passed through {@link #runOrdered(int, int, Runnable)}, so it happens after
+ * that chunk is sent.
+ * <p>
+ * Should only be accessed on the session's event loop.
+ */
+public class ChunkEncodingQueue {
+    private final GeyserSession session;
+    /**
+     * The executor to encode chunks in, or null if chunks should be encoded on the event loop.
+     */
+    @Nullable
+    private final ExecutorService executor;
+
+    private final Deque<Entry> queue = new ArrayDeque<>();
+    /**
+     * How many queued entries exist for each chunk position.
+     */
+    private final Long2ObjectMap<PendingCount> pendingPositions = new Long2ObjectOpenHashMap<>();
+
+    public ChunkEncodingQueue(GeyserSession session) {
+        this.session = session;
+        this.executor = session.getGeyser().getChunkEncodingExecutor();
+    }
+
+    /**
+     * Encodes a chunk and delivers the result on the event loop once all chunks submitted before it are delivered.
+     *
+     * @param chunkX the chunk X coordinate
+     * @param chunkZ the chunk Z coordinate
+     * @param encoder the encoding work. Must not touch session state that can change on the event loop.
+     * @param delivery run on the event loop with the encoded chunk
+     */
+    public <T> void submit(int chunkX, int chunkZ, Supplier<T> encoder, Consumer<T> delivery) {
+        if (executor == null) {
+            delivery.accept(encoder.get());
+            return;
+        }
+
+        CompletableFuture<Runnable> result = CompletableFuture.supplyAsync(encoder, executor)
+                .thenApply(encoded -> () -> delivery.accept(encoded));
+        enqueue(new Entry(MathUtils.chunkPositionToLong(chunkX, chunkZ), result));
+        result.whenComplete((ignored, throwable) -> session.executeInEventLoop(this::drain));
+    }
+
+    /**
+     * Runs the task now if no chunk at this position is being encoded; otherwise, runs it after that chunk has been sent.
+     */
+    public void runOrdered(int chunkX, int chunkZ, Runnable task) {
+        long position = MathUtils.chunkPositionToLong(chunkX, chunkZ);
+        if (!pendingPositions.containsKey(position)) {
+            task.run();
+            return;
+        }
+        enqueue(new Entry(position, CompletableFuture.completedFuture(task)));
+    }
+
+    /**
+     * @return if there is work queued for this chunk position
+     */
+    public boolean isPending(int chunkX, int chunkZ) {
+        return !pendingPositions.isEmpty() && pendingPositions.containsKey(MathUtils.chunkPositionToLong(chunkX, chunkZ));
+    }
+
+    /**
+     * Stops any chunk at this position that is still being encoded from being sent, as it has been unloaded,
+     * along with any work waiting on it.
+     */
+    public void cancel(int chunkX, int chunkZ) {
+        if (!isPending(chunkX, chunkZ)) {
+            return;
+        }
+        long position = MathUtils.chunkPositionToLong(chunkX, chunkZ);
+        for (Entry entry : queue) {
+            if (entry.position == position) {
+                entry.cancelled = true;
+            }
+        }
+    }
+
+    /**
+     * Discards everything still queued. Used when the client is switching worlds.
+     */
+    public void clear() {
+        queue.clear();
+        pendingPositions.clear();
+    }
+
+    private void enqueue(Entry entry) {
+        queue.addLast(entry);
+        PendingCount pending = pendingPositions.get(entry.position);
+        if (pending == null) {
+            pending = new PendingCount();
+            pendingPositions.put(entry.position, pending);
+        }
+        pending.count++;
+    }
+
+    private void drain() {
+        Entry entry;
+        while ((entry = queue.peekFirst()) != null && entry.result.isDone()) {
+            queue.pollFirst();
+            PendingCount pending = pendingPositions.get(entry.position);
+            if (pending != null && --pending.count <= 0) {
+                pendingPositions.remove(entry.position);
+            }
+
+            if (entry.cancelled || session.isClosed()) {
+                continue;
+            }
+
+            Runnable task;
+            try {
+                task = entry.result.join();
+            } catch (CompletionException e) {
+                session.getGeyser().getLogger().error("Error while encoding chunk", e.getCause());
+                continue;
+            }
+
+            try {
+                task.run();
+            } catch (Throwable t) {
+                session.getGeyser().getLogger().error("Error while sending chunk", t);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final long position;
+        private final CompletableFuture<Runnable> result;
+        private boolean cancelled = false;
+
+        private Entry(long position, CompletableFuture<Runnable> result) {
+            this.position = position;
+            this.result = result;
+        }
+    }
+
+    private static final class PendingCount {
+        private int count;
+    }
+}
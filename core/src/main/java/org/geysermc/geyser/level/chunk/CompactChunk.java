@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2019-2022 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk;
+
+import com.github.steveice10.mc.protocol.data.game.chunk.DataPalette;
+import org.geysermc.geyser.level.block.BlockStateValues;
+
+/**
+ * Stores chunk sections as {@link CompactChunkSection}s, which avoids keeping the palette and storage objects
+ * of every section around, and can optionally move the block data off of the heap.
+ */
+public final class CompactChunk implements GeyserChunk {
+    private final CompactChunkSection[] sections;
+    private final boolean offHeap;
+
+    private CompactChunk(CompactChunkSection[] sections, boolean offHeap) {
+        this.sections = sections;
+        this.offHeap = offHeap;
+    }
+
+    public static CompactChunk from(DataPalette[] javaSections, boolean offHeap) {
+        CompactChunkSection[] sections = new CompactChunkSection[javaSections.length];
+        for (int i = 0; i < javaSections.length; i++) {
+            if (javaSections[i] != null) {
+                sections[i] = CompactChunkSection.from(javaSections[i], offHeap);
+            }
+        }
+        return new CompactChunk(sections, offHeap);
+    }
+
+    /**
+     * @return a copy of this chunk that can be changed independently, using the same kind of memory
+     */
+    public CompactChunk copy() {
+        CompactChunkSection[] copy = new CompactChunkSection[sections.length];
+        for (int i = 0; i < sections.length; i++) {
+            if (sections[i] != null) {
+                copy[i] = sections[i].copy();
+            }
+        }
+        return new CompactChunk(copy, offHeap);
+    }
+
+    /**
+     * @return whether this chunk holds exactly the blocks of these Java sections
+     */
+    public boolean matches(DataPalette[] javaSections) {
+        if (javaSections.length != sections.length) {
+            return false;
+        }
+        for (int sectionY = 0; sectionY < sections.length; sectionY++) {
+            CompactChunkSection section = sections[sectionY];
+            DataPalette javaSection = javaSections[sectionY];
+            if ((section == null) != (javaSection == null)) {
+                return false;
+            }
+            if (section == null) {
+                continue;
+            }
+            for (int index = 0; index < 4096; index++) {
+                if (section.get(index) != javaSection.get(index & 0xF, index >> 8, (index >> 4) & 0xF)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int get(int sectionY, int x, int y, int z) {
+        CompactChunkSection section = sections[sectionY];
+        if (section != null) {
+            return section.get(index(x, y, z));
+        }
+        return BlockStateValues.JAVA_AIR_ID;
+    }
+
+    @Override
+    public void set(int sectionY, int x, int y, int z, int block) {
+        CompactChunkSection section = sections[sectionY];
+        if (section == null) {
+            if (block == BlockStateValues.JAVA_AIR_ID) {
+                // Nothing to update
+                return;
+            }
+            // A previously empty section, which is no longer empty as a block has been added to it
+            section = CompactChunkSection.filledWith(BlockStateValues.JAVA_AIR_ID, offHeap);
+            sections[sectionY] = section;
+        }
+
+        section.set(index(x, y, z), block);
+    }
+
+    @Override
+    public int sectionCount() {
+        return sections.length;
+    }
+
+    @Override
+    public long heapUsage() {
+        long usage = 32L + 4L * sections.length;
+        for (CompactChunkSection section : sections) {
+            if (section != null) {
+                usage += section.heapUsage();
+            }
+        }
+        return usage;
+    }
+
+    @Override
+    public long offHeapUsage() {
+        long usage = 0;
+        for (CompactChunkSection section : sections) {
+            if (section != null) {
+                usage += section.offHeapUsage();
+            }
+        }
+        return usage;
+    }
+
+    @Override
+    public void release() {
+        for (CompactChunkSection section : sections) {
+            if (section != null) {
+                section.release();
+            }
+        }
+    }
+
+    /**
+     * @return the index of a block in Java's YZX order
+     */
+    private static int index(int x, int y, int z) {
+        return (y << 8) | (z << 4) | x;
+    }
+}
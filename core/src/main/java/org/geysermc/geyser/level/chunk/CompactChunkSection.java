@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2019-2022 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk;
+
+import com.github.steveice10.mc.protocol.data.game.chunk.BitStorage;
+import com.github.steveice10.mc.protocol.data.game.chunk.DataPalette;
+import com.github.steveice10.mc.protocol.data.game.chunk.palette.GlobalPalette;
+import com.github.steveice10.mc.protocol.data.game.chunk.palette.Palette;
+import com.github.steveice10.mc.protocol.data.game.chunk.palette.SingletonPalette;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+
+/**
+ * A Java block section packed into a plain palette array and storage words, using the same word layout as Java Edition.
+ * The words can optionally be kept in pooled off-heap memory, in which case {@link #release()} must be called once
+ * the section is no longer used.
+ */
+final class CompactChunkSection {
+    private static final int SIZE = 4096;
+    /**
+     * Java Edition switches to the global palette past this many bits per entry
+     */
+    private static final int MAX_PALETTE_BITS = 8;
+    private static final int MIN_PALETTE_BITS = 4;
+
+    private final boolean offHeap;
+
+    /**
+     * The block states of this section, indexed by the values in storage. Null if storage holds block states directly.
+     */
+    private int[] palette;
+    private int paletteSize;
+
+    /**
+     * Bits per entry; 0 if every block in this section is {@code palette[0]}
+     */
+    private int bits;
+    private int valuesPerWord;
+    private long mask;
+
+    private long[] words;
+    private ByteBuf buffer;
+
+    private CompactChunkSection(boolean offHeap, int[] palette, int paletteSize) {
+        this.offHeap = offHeap;
+        this.palette = palette;
+        this.paletteSize = paletteSize;
+    }
+
+    /**
+     * @return a section filled entirely with the given block state
+     */
+    static CompactChunkSection filledWith(int state, boolean offHeap) {
+        return new CompactChunkSection(offHeap, new int[] {state}, 1);
+    }
+
+    static CompactChunkSection from(DataPalette data, boolean offHeap) {
+        Palette javaPalette = data.getPalette();
+        if (javaPalette instanceof SingletonPalette) {
+            return filledWith(javaPalette.idToState(0), offHeap);
+        }
+
+        BitStorage storage = data.getStorage();
+        CompactChunkSection section;
+        if (javaPalette instanceof GlobalPalette) {
+            section = new CompactChunkSection(offHeap, null, 0);
+        } else {
+            int size = javaPalette.size();
+            int[] palette = new int[1 << storage.getBitsPerEntry()];
+            for (int i = 0; i < size; i++) {
+                palette[i] = javaPalette.idToState(i);
+            }
+            section = new CompactChunkSection(offHeap, palette, size);
+        }
+
+        long[] javaWords = storage.getData();
+        int wordCount = section.setBits(storage.getBitsPerEntry());
+        if (offHeap) {
+            section.buffer = PooledByteBufAllocator.DEFAULT.directBuffer(wordCount << 3, wordCount << 3);
+            for (int i = 0; i < wordCount; i++) {
+                section.buffer.writeLong(javaWords[i]);
+            }
+        } else {
+            // The Java storage is not used anywhere else once it has been cached, so there is no need to copy it
+            section.words = javaWords;
+        }
+        return section;
+    }
+
+    CompactChunkSection copy() {
+        CompactChunkSection copy = new CompactChunkSection(offHeap, palette == null ? null : palette.clone(), paletteSize);
+        if (bits != 0) {
+            copy.setBits(bits);
+            if (buffer != null) {
+                copy.buffer = PooledByteBufAllocator.DEFAULT.directBuffer(buffer.capacity(), buffer.capacity());
+                copy.buffer.writeBytes(buffer, 0, buffer.capacity());
+            } else {
+                copy.words = words.clone();
+            }
+        }
+        return copy;
+    }
+
+    int get(int index) {
+        if (bits == 0) {
+            return palette[0];
+        }
+        int value = getValue(index);
+        return palette == null ? value : palette[value];
+    }
+
+    void set(int index, int state) {
+        int value = valueFor(state);
+        if (bits != 0) {
+            setValue(index, value);
+        }
+    }
+
+    long heapUsage() {
+        long usage = 48;
+        if (palette != null) {
+            usage += 16L + 4L * palette.length;
+        }
+        if (words != null) {
+            usage += 16L + 8L * words.length;
+        }
+        return usage;
+    }
+
+    long offHeapUsage() {
+        return buffer == null ? 0 : buffer.capacity();
+    }
+
+    void release() {
+        if (buffer != null) {
+            buffer.release();
+            buffer = null;
+        }
+    }
+
+    /**
+     * Finds the storage value for a block state, growing the palette or storage if needed.
+     */
+    private int valueFor(int state) {
+        if (palette == null) {
+            if (state > mask) {
+                resize(bitsFor(state), null);
+            }
+            return state;
+        }
+
+        for (int i = 0; i < paletteSize; i++) {
+            if (palette[i] == state) {
+                return i;
+            }
+        }
+
+        if (paletteSize >= (1 << bits)) {
+            int newBits = Math.max(MIN_PALETTE_BITS, bits + 1);
+            if (newBits > MAX_PALETTE_BITS) {
+                // Store block states directly from now on, like Java Edition's global palette
+                int maxState = state;
+                for (int i = 0; i < paletteSize; i++) {
+                    maxState = Math.max(maxState, palette[i]);
+                }
+                int[] oldPalette = palette;
+                palette = null;
+                paletteSize = 0;
+                resize(bitsFor(maxState), oldPalette);
+                return state;
+            }
+
+            int[] newPalette = new int[1 << newBits];
+            System.arraycopy(palette, 0, newPalette, 0, paletteSize);
+            palette = newPalette;
+            resize(newBits, null);
+        }
+
+        palette[paletteSize] = state;
+        return paletteSize++;
+    }
+
+    /**
+     * Repacks the storage with a new amount of bits per entry.
+     *
+     * @param mapping if not null, old values are replaced with {@code mapping[value]}
+     */
+    private void resize(int newBits, int[] mapping) {
+        int oldBits = this.bits;
+        long[] oldWords = this.words;
+        ByteBuf oldBuffer = this.buffer;
+        int oldValuesPerWord = this.valuesPerWord;
+        long oldMask = this.mask;
+
+        allocate(newBits);
+        for (int i = 0; i < SIZE; i++) {
+            int value = 0;
+            if (oldBits != 0) {
+                int wordIndex = i / oldValuesPerWord;
+                long word = oldWords != null ? oldWords[wordIndex] : oldBuffer.getLong(wordIndex << 3);
+                value = (int) ((word >>> ((i - wordIndex * oldValuesPerWord) * oldBits)) & oldMask);
+            }
+            setValue(i, mapping == null ? value : mapping[value]);
+        }
+
+        if (oldBuffer != null) {
+            oldBuffer.release();
+        }
+    }
+
+    /**
+     * @return how many words are needed to store a section with this many bits per entry
+     */
+    private int setBits(int bits) {
+        this.bits = bits;
+        this.valuesPerWord = 64 / bits;
+        this.mask = (1L << bits) - 1L;
+        return (SIZE + valuesPerWord - 1) / valuesPerWord;
+    }
+
+    private void allocate(int bits) {
+        int wordCount = setBits(bits);
+        if (offHeap) {
+            this.words = null;
+            this.buffer = PooledByteBufAllocator.DEFAULT.directBuffer(wordCount << 3, wordCount << 3).writeZero(wordCount << 3);
+        } else {
+            this.words = new long[wordCount];
+        }
+    }
+
+    private int getValue(int index) {
+        int wordIndex = index / valuesPerWord;
+        int shift = (index - wordIndex * valuesPerWord) * bits;
+        return (int) ((getWord(wordIndex) >>> shift) & mask);
+    }
+
+    private void setValue(int index, int value) {
+        int wordIndex = index / valuesPerWord;
+        int shift = (index - wordIndex * valuesPerWord) * bits;
+        long word = getWord(wordIndex);
+        setWord(wordIndex, (word & ~(mask << shift)) | ((value & mask) << shift));
+    }
+
+    private long getWord(int index) {
+        return offHeap ? buffer.getLong(index << 3) : words[index];
+    }
+
+    private void setWord(int index, long word) {
+        if (offHeap) {
+            buffer.setLong(index << 3, word);
+        } else {
+            words[index] = word;
+        }
+    }
+
+    private static int bitsFor(int value) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(value));
+    }
+}
@@ -28,11 +28,44 @@ package org.geysermc.geyser.level.chunk;
 import com.github.steveice10.mc.protocol.data.game.chunk.DataPalette;
 
 /**
- * Acts as a lightweight chunk class that doesn't store biomes, heightmaps or block entities.
+ * Acts as a lightweight chunk that doesn't store biomes, heightmaps or block entities.
  */
-public record GeyserChunk(DataPalette[] sections) {
+public interface GeyserChunk {
 
-    public static GeyserChunk from(DataPalette[] sections) {
-        return new GeyserChunk(sections);
+    /**
+     * @param sectionY the index of the section in this chunk
+     * @return the Java block state at the given position, or air if the section is empty
+     */
+    int get(int sectionY, int x, int y, int z);
+
+    /**
+     * Sets the Java block state at the given position, creating the section if it is empty.
+     *
+     * @param sectionY the index of the section in this chunk
+     */
+    void set(int sectionY, int x, int y, int z, int block);
+
+    int sectionCount();
+
+    /**
+     * @return an estimate of how many bytes of heap this chunk uses
+     */
+    long heapUsage();
+
+    /**
+     * @return how many bytes of off-heap memory this chunk uses
+     */
+    default long offHeapUsage() {
+        return 0;
+    }
+
+    /**
+     * Frees any memory that is not managed by the garbage collector. The chunk must not be used afterwards.
+     */
+    default void release() {
+    }
+
+    static GeyserChunk from(DataPalette[] sections) {
+        return new PaletteChunk(sections);
     }
 }
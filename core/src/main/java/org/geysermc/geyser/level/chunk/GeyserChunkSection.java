@@ -27,6 +27,7 @@ package org.geysermc.geyser.level.chunk;
 
 import com.nukkitx.network.util.Preconditions;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 
 public class GeyserChunkSection {
 
@@ -62,6 +63,21 @@ public class GeyserChunkSection {
         }
     }
 
+    /**
+     * @return this section serialized in the same format as {@link #writeToNetwork(ByteBuf)}
+     */
+    public byte[] serialize() {
+        ByteBuf buffer = ByteBufAllocator.DEFAULT.buffer(estimateNetworkSize());
+        try {
+            writeToNetwork(buffer);
+            byte[] bytes = new byte[buffer.readableBytes()];
+            buffer.readBytes(bytes);
+            return bytes;
+        } finally {
+            buffer.release();
+        }
+    }
+
     public int estimateNetworkSize() {
         int size = 2; // Version + storage count
         for (BlockStorage blockStorage : this.storage) {
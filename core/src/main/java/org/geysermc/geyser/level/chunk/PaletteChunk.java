@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2019-2022 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk;
+
+import com.github.steveice10.mc.protocol.data.game.chunk.BitStorage;
+import com.github.steveice10.mc.protocol.data.game.chunk.DataPalette;
+import com.github.steveice10.mc.protocol.data.game.chunk.palette.GlobalPalette;
+import org.geysermc.geyser.level.block.BlockStateValues;
+
+/**
+ * Stores chunk sections as the palettes read from the Java packet.
+ */
+record PaletteChunk(DataPalette[] sections) implements GeyserChunk {
+    /**
+     * A rough size of the palette, storage and array headers of one section
+     */
+    private static final int SECTION_OVERHEAD = 96;
+
+    @Override
+    public int get(int sectionY, int x, int y, int z) {
+        DataPalette palette = sections[sectionY];
+        if (palette != null) {
+            return palette.get(x, y, z);
+        }
+        return BlockStateValues.JAVA_AIR_ID;
+    }
+
+    @Override
+    public void set(int sectionY, int x, int y, int z, int block) {
+        DataPalette palette = sections[sectionY];
+        if (palette == null) {
+            if (block != BlockStateValues.JAVA_AIR_ID) {
+                // A previously empty chunk, which is no longer empty as a block has been added to it
+                palette = DataPalette.createForChunk();
+                // Fixes the chunk assuming that all blocks is the `block` variable we are updating. /shrug
+                palette.getPalette().stateToId(BlockStateValues.JAVA_AIR_ID);
+                sections[sectionY] = palette;
+            } else {
+                // Nothing to update
+                return;
+            }
+        }
+
+        palette.set(x, y, z, block);
+    }
+
+    @Override
+    public int sectionCount() {
+        return sections.length;
+    }
+
+    @Override
+    public long heapUsage() {
+        long usage = 16L + 4L * sections.length;
+        for (DataPalette palette : sections) {
+            if (palette == null) {
+                continue;
+            }
+            usage += SECTION_OVERHEAD;
+            if (!(palette.getPalette() instanceof GlobalPalette)) {
+                // Both the list and map palettes keep an int array sized to their capacity
+                usage += 8L * palette.getPalette().size();
+            }
+            BitStorage storage = palette.getStorage();
+            if (storage != null) {
+                usage += 8L * storage.getData().length;
+            }
+        }
+        return usage;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2019-2022 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk;
+
+import com.github.steveice10.mc.protocol.data.game.chunk.DataPalette;
+import org.geysermc.geyser.GeyserImpl;
+import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.util.MathUtils;
+import org.geysermc.geyser.util.XXHash64;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares cached chunks between sessions that are sent identical chunk data by the same server, so players in the
+ * same area don't each keep their own copy. Sessions read shared chunks through a {@link SharedChunkView}, which
+ * keeps any blocks the session changes to itself.
+ * <p>
+ * The content hash of the chunk data is part of the key, as players behind a proxy may all connect to the same
+ * address while being on different servers, and chunks may have changed between two players loading them.
+ */
+public final class SharedChunkStore {
+    private static final boolean ENABLED = GeyserImpl.getInstance().getConfig().isUseSharedChunkStore();
+
+    private static final Map<Key, SharedChunk> CHUNKS = new ConcurrentHashMap<>();
+
+    private SharedChunkStore() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Gets a view of the shared chunk with this data, storing the chunk first if no other session has it.
+     *
+     * @param rawData the chunk data from the Java packet, used to tell if two chunks are identical
+     * @param offHeap whether a new shared chunk should be stored off-heap
+     * @return a view of the shared chunk, or a chunk of this session's own if its hash collides with different data
+     */
+    public static GeyserChunk acquire(GeyserSession session, int chunkX, int chunkZ, DataPalette[] sections, byte[] rawData, boolean offHeap) {
+        Key key = new Key(session.remoteServer().address(), session.remoteServer().port(), session.getDimension(),
+                MathUtils.chunkPositionToLong(chunkX, chunkZ), XXHash64.hash(rawData));
+        SharedChunk[] acquired = new SharedChunk[1];
+        CHUNKS.compute(key, (k, existing) -> {
+            if (existing == null) {
+                existing = new SharedChunk(k, CompactChunk.from(sections, offHeap));
+            } else if (!existing.chunk.matches(sections)) {
+                // Different chunk with the same hash - don't hand out the other terrain
+                return existing;
+            }
+            existing.references++;
+            acquired[0] = existing;
+            return existing;
+        });
+        if (acquired[0] == null) {
+            return CompactChunk.from(sections, offHeap);
+        }
+        return new SharedChunkView(acquired[0]);
+    }
+
+    static void release(SharedChunk shared) {
+        CHUNKS.computeIfPresent(shared.key, (k, existing) -> {
+            if (--existing.references > 0) {
+                return existing;
+            }
+            existing.chunk.release();
+            return null;
+        });
+    }
+
+    /**
+     * @return how many distinct chunks are currently shared
+     */
+    public static int size() {
+        return CHUNKS.size();
+    }
+
+    private record Key(String address, int port, String dimension, long position, long contentHash) {
+    }
+
+    static final class SharedChunk {
+        private final Key key;
+        /**
+         * Never changed once stored, so it can be read from any session
+         */
+        final CompactChunk chunk;
+        /**
+         * Only changed while holding the map entry
+         */
+        volatile int references;
+
+        private SharedChunk(Key key, CompactChunk chunk) {
+            this.key = key;
+            this.chunk = chunk;
+        }
+    }
+}
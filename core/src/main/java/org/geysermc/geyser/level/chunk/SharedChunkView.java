@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2019-2022 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+
+/**
+ * A session's view of a chunk from the {@link SharedChunkStore}. Blocks changed by the session are kept in an
+ * overlay; once too many blocks have been changed, the session takes its own copy of the chunk instead.
+ */
+final class SharedChunkView implements GeyserChunk {
+    /**
+     * Beyond this, a private copy of the chunk takes less memory and is faster to read than the overlay
+     */
+    private static final int MAX_OVERLAY_SIZE = 512;
+
+    private SharedChunkStore.SharedChunk shared;
+    private Int2IntMap overlay;
+    private CompactChunk own;
+
+    SharedChunkView(SharedChunkStore.SharedChunk shared) {
+        this.shared = shared;
+    }
+
+    @Override
+    public int get(int sectionY, int x, int y, int z) {
+        if (own != null) {
+            return own.get(sectionY, x, y, z);
+        }
+        if (overlay != null) {
+            int index = index(sectionY, x, y, z);
+            if (overlay.containsKey(index)) {
+                return overlay.get(index);
+            }
+        }
+        return shared.chunk.get(sectionY, x, y, z);
+    }
+
+    @Override
+    public void set(int sectionY, int x, int y, int z, int block) {
+        if (own != null) {
+            own.set(sectionY, x, y, z, block);
+            return;
+        }
+
+        if (overlay == null) {
+            overlay = new Int2IntOpenHashMap();
+        }
+        overlay.put(index(sectionY, x, y, z), block);
+
+        if (overlay.size() > MAX_OVERLAY_SIZE) {
+            own = shared.chunk.copy();
+            for (Int2IntMap.Entry entry : overlay.int2IntEntrySet()) {
+                int index = entry.getIntKey();
+                own.set(index >> 12, index & 0xF, (index >> 8) & 0xF, (index >> 4) & 0xF, entry.getIntValue());
+            }
+            overlay = null;
+            SharedChunkStore.release(shared);
+            shared = null;
+        }
+    }
+
+    @Override
+    public int sectionCount() {
+        return own != null ? own.sectionCount() : shared.chunk.sectionCount();
+    }
+
+    @Override
+    public long heapUsage() {
+        if (own != null) {
+            return own.heapUsage();
+        }
+        // Split the shared chunk evenly between everyone using it
+        long usage = 32L + shared.chunk.heapUsage() / Math.max(1, shared.references);
+        if (overlay != null) {
+            usage += 9L * overlay.size();
+        }
+        return usage;
+    }
+
+    @Override
+    public long offHeapUsage() {
+        if (own != null) {
+            return own.offHeapUsage();
+        }
+        return shared.chunk.offHeapUsage() / Math.max(1, shared.references);
+    }
+
+    @Override
+    public void release() {
+        if (own != null) {
+            own.release();
+        } else if (shared != null) {
+            SharedChunkStore.release(shared);
+            shared = null;
+        }
+    }
+
+    private static int index(int sectionY, int x, int y, int z) {
+        return (sectionY << 12) | (y << 8) | (z << 4) | x;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2019-2022 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk;
+
+import com.github.steveice10.mc.protocol.data.game.chunk.BitStorage;
+import com.github.steveice10.mc.protocol.data.game.chunk.palette.GlobalPalette;
+import com.github.steveice10.mc.protocol.data.game.chunk.palette.Palette;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.geysermc.geyser.GeyserImpl;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * A cache of serialized Bedrock chunk sections, shared across all sessions.
+ * <p>
+ * Players in the same area receive identical Java chunk sections; with this cache, each unique section only needs to
+ * be translated once per Bedrock protocol version.
+ */
+public final class TranslatedSectionCache {
+    private static final int OVERHEAD_BYTES = 64;
+
+    private static final Cache<SectionKey, TranslatedSection> CACHE;
+
+    static {
+        long maxBytes = GeyserImpl.getInstance().getConfig().getTranslatedSectionCacheSize() * 1024L * 1024L;
+        if (maxBytes > 0) {
+            CACHE = CacheBuilder.newBuilder()
+                    .maximumWeight(maxBytes)
+                    .<SectionKey, TranslatedSection>weigher((key, value) -> key.weight() + value.data().length)
+                    .recordStats()
+                    .build();
+        } else {
+            CACHE = null;
+        }
+    }
+
+    public static boolean isEnabled() {
+        return CACHE != null;
+    }
+
+    @Nullable
+    public static TranslatedSection get(SectionKey key) {
+        return CACHE.getIfPresent(key);
+    }
+
+    public static void put(SectionKey key, TranslatedSection section) {
+        CACHE.put(key, section);
+    }
+
+    /**
+     * @return the hit/miss statistics of the cache, or null if the cache is disabled
+     */
+    @Nullable
+    public static CacheStats stats() {
+        return CACHE != null ? CACHE.stats() : null;
+    }
+
+    public static long size() {
+        return CACHE != null ? CACHE.size() : 0;
+    }
+
+    /**
+     * @param data the serialized Bedrock chunk section
+     * @param bedrockOnlyBlockEntities whether this section contains blocks that are only block entities in Bedrock,
+     *                                 and that therefore still need to be looked for
+     */
+    public record TranslatedSection(byte[] data, boolean bedrockOnlyBlockEntities) {
+    }
+
+    /**
+     * Identifies a Java chunk section by its contents. The palette and storage are copied, as the
+     * originals can be modified later by block updates.
+     */
+    public static final class SectionKey {
+        private final int protocolVersion;
+        private final int bitsPerEntry;
+        private final int[] palette;
+        private final long[] storage;
+        private final int hashCode;
+
+        private SectionKey(int protocolVersion, int bitsPerEntry, int[] palette, long[] storage) {
+            this.protocolVersion = protocolVersion;
+            this.bitsPerEntry = bitsPerEntry;
+            this.palette = palette;
+            this.storage = storage;
+
+            int hash = protocolVersion;
+            hash = 31 * hash + bitsPerEntry;
+            hash = 31 * hash + Arrays.hashCode(palette);
+            hash = 31 * hash + Arrays.hashCode(storage);
+            this.hashCode = hash;
+        }
+
+        public static SectionKey from(int protocolVersion, Palette palette, BitStorage storage) {
+            int[] states;
+            if (palette instanceof GlobalPalette) {
+                // Storage values are the block states themselves
+                states = new int[0];
+            } else {
+                states = new int[palette.size()];
+                for (int i = 0; i < states.length; i++) {
+                    states[i] = palette.idToState(i);
+                }
+            }
+            return new SectionKey(protocolVersion, storage.getBitsPerEntry(), states, storage.getData().clone());
+        }
+
+        private int weight() {
+            return OVERHEAD_BYTES + (palette.length << 2) + (storage.length << 3);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SectionKey other)) {
+                return false;
+            }
+            return hashCode == other.hashCode && protocolVersion == other.protocolVersion && bitsPerEntry == other.bitsPerEntry
+                    && Arrays.equals(palette, other.palette) && Arrays.equals(storage, other.storage);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private TranslatedSectionCache() {
+    }
+}
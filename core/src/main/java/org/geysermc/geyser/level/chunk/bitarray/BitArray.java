@@ -34,6 +34,14 @@ public interface BitArray {
 
     int get(int index);
 
+    /**
+     * Replaces every entry of this array at once. Each word is written only once and no per-entry bounds
+     * or value checks are done, so every value must already fit in this array's {@link BitArrayVersion}.
+     *
+     * @param values the new entries in index order; must hold at least {@link #size()} values
+     */
+    void setAll(int[] values);
+
     int size();
 
     /**
@@ -87,6 +87,24 @@ public enum BitArrayVersion {
         return next;
     }
 
+    /**
+     * Packs the first {@code size} values into the given words without any per-entry checks.
+     * Padded versions never let an entry span two words, so the same layout applies to both
+     * {@link Pow2BitArray} and {@link PaddedBitArray}.
+     */
+    void pack(int[] values, int size, int[] words) {
+        int bits = this.bits;
+        int index = 0;
+        for (int i = 0; i < words.length; i++) {
+            int word = 0;
+            int end = Math.min(index + this.entriesPerWord, size);
+            for (int offset = 0; index < end; index++, offset += bits) {
+                word |= values[index] << offset;
+            }
+            words[i] = word;
+        }
+    }
+
     public BitArray createArray(int size) {
         return this.createArray(size, new int[MathUtils.ceil((float) size / entriesPerWord)]);
     }
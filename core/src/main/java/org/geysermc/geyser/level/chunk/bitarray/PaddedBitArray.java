@@ -77,6 +77,11 @@ public class PaddedBitArray implements BitArray {
         return (this.words[arrayIndex] >>> offset) & this.version.maxEntryValue;
     }
 
+    @Override
+    public void setAll(int[] values) {
+        this.version.pack(values, this.size, this.words);
+    }
+
     @Override
     public int size() {
         return this.size;
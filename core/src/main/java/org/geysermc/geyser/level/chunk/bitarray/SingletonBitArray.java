@@ -39,6 +39,10 @@ public class SingletonBitArray implements BitArray {
     public void set(int index, int value) {
     }
 
+    @Override
+    public void setAll(int[] values) {
+    }
+
     @Override
     public int get(int index) {
         return 0;
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2019-2022 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.map;
+
+import org.geysermc.geyser.level.MapColor;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * The merged image of one map, shared by every session on the same server. Colors are kept as the Java color ids
+ * and only converted to ARGB for the pixels that are actually sent.
+ * <p>
+ * The image is split into tiles that are never changed once stored; a change to a tile replaces it with a changed
+ * copy. Every session keeps a {@link ClientView} of the tiles its client shows, which are the same tiles as the
+ * canvas while the client is in sync, and its own copies where the server sent that player something else (for
+ * example, maps rendered per player). An update is then only sent for the tiles the client does not already show,
+ * and a full image requested by the client is always built from what that session was sent.
+ */
+public final class MapCanvas {
+    public static final int SIZE = 128;
+    private static final int TILE_SIZE = 16;
+    private static final int TILES_PER_ROW = SIZE / TILE_SIZE;
+    private static final byte[] EMPTY_TILE = new byte[TILE_SIZE * TILE_SIZE];
+
+    private final byte[][] tiles = newTiles();
+
+    /**
+     * Merges a Java map update into the canvas.
+     *
+     * @param view what the session's client shows, updated to what it shows once the result is sent
+     * @return what to send to the session
+     */
+    public synchronized Update update(int x, int y, int width, int height, byte[] data, ClientView view) {
+        int startX = Math.max(x, 0);
+        int startY = Math.max(y, 0);
+        int endX = Math.min(x + width, SIZE);
+        int endY = Math.min(y + height, SIZE);
+        if (startX >= endX || startY >= endY) {
+            return new Update(0, 0, 0, 0, null);
+        }
+
+        int minX = SIZE;
+        int minY = SIZE;
+        int maxX = -1;
+        int maxY = -1;
+
+        for (int tileY = startY / TILE_SIZE; tileY <= (endY - 1) / TILE_SIZE; tileY++) {
+            int tileStartY = Math.max(tileY * TILE_SIZE, startY);
+            int tileEndY = Math.min((tileY + 1) * TILE_SIZE, endY);
+            for (int tileX = startX / TILE_SIZE; tileX <= (endX - 1) / TILE_SIZE; tileX++) {
+                int tileStartX = Math.max(tileX * TILE_SIZE, startX);
+                int tileEndX = Math.min((tileX + 1) * TILE_SIZE, endX);
+                int tile = tileY * TILES_PER_ROW + tileX;
+
+                byte[] shown = view.tiles[tile];
+                byte[] canvasTile = apply(tiles[tile], tileX, tileY, tileStartX, tileStartY, tileEndX, tileEndY, x, y, width, data);
+                byte[] newShown;
+                if (shown == tiles[tile]) {
+                    // The client showed the canvas, so it now shows the updated canvas
+                    newShown = canvasTile;
+                } else {
+                    newShown = apply(shown, tileX, tileY, tileStartX, tileStartY, tileEndX, tileEndY, x, y, width, data);
+                    if (newShown != canvasTile && Arrays.equals(newShown, canvasTile)) {
+                        // Back in sync; drop the session's own copy
+                        newShown = canvasTile;
+                    }
+                }
+
+                // A tile is only copied when its pixels change
+                boolean clientChanged = newShown != shown && !Arrays.equals(newShown, shown);
+                if (clientChanged) {
+                    minX = Math.min(minX, tileStartX);
+                    minY = Math.min(minY, tileStartY);
+                    maxX = Math.max(maxX, tileEndX - 1);
+                    maxY = Math.max(maxY, tileEndY - 1);
+                }
+
+                tiles[tile] = canvasTile;
+                view.tiles[tile] = newShown;
+            }
+        }
+
+        if (x <= 0 && y <= 0 && x + width >= SIZE && y + height >= SIZE) {
+            view.complete = true;
+        }
+
+        if (maxX == -1) {
+            // The client already shows all of this
+            return new Update(0, 0, 0, 0, null);
+        }
+
+        // Send what the server sent us for this area; that is what the client shows there afterwards
+        int sendWidth = maxX - minX + 1;
+        int sendHeight = maxY - minY + 1;
+        int[] argb = new int[sendWidth * sendHeight];
+        int idx = 0;
+        for (int row = minY; row <= maxY; row++) {
+            int dataRow = (row - y) * width - x;
+            for (int column = minX; column <= maxX; column++) {
+                argb[idx++] = MapColor.toARGB(data[dataRow + column]);
+            }
+        }
+        return new Update(minX, minY, sendWidth, sendHeight, argb);
+    }
+
+    /**
+     * Writes the part of an update within one tile.
+     *
+     * @return the tile itself if no pixel changed, or else a changed copy
+     */
+    private static byte[] apply(byte[] tile, int tileX, int tileY, int startX, int startY, int endX, int endY,
+                                int x, int y, int width, byte[] data) {
+        byte[] result = tile;
+        for (int canvasY = startY; canvasY < endY; canvasY++) {
+            int dataRow = (canvasY - y) * width - x;
+            int tileRow = (canvasY - tileY * TILE_SIZE) * TILE_SIZE - tileX * TILE_SIZE;
+            for (int canvasX = startX; canvasX < endX; canvasX++) {
+                byte color = data[dataRow + canvasX];
+                if (result[tileRow + canvasX] != color) {
+                    if (result == tile) {
+                        result = tile.clone();
+                    }
+                    result[tileRow + canvasX] = color;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static byte[][] newTiles() {
+        byte[][] tiles = new byte[TILES_PER_ROW * TILES_PER_ROW][];
+        Arrays.fill(tiles, EMPTY_TILE);
+        return tiles;
+    }
+
+    /**
+     * The tiles one session's client shows. Should only be used by that session.
+     */
+    public static final class ClientView {
+        private final byte[][] tiles = newTiles();
+        /**
+         * Whether the client has been sent the whole map at least once
+         */
+        private boolean complete;
+
+        /**
+         * @return the whole image the client was sent as ARGB, or null if it has not been sent the whole map yet
+         */
+        @Nullable
+        public int[] toARGB() {
+            if (!complete) {
+                return null;
+            }
+
+            int[] argb = new int[SIZE * SIZE];
+            for (int tile = 0; tile < tiles.length; tile++) {
+                // Tiles are never changed once stored, so they can be read without the canvas lock
+                byte[] colors = tiles[tile];
+                int originX = (tile % TILES_PER_ROW) * TILE_SIZE;
+                int originY = (tile / TILES_PER_ROW) * TILE_SIZE;
+                for (int i = 0; i < colors.length; i++) {
+                    argb[(originY + i / TILE_SIZE) * SIZE + originX + i % TILE_SIZE] = MapColor.toARGB(colors[i]);
+                }
+            }
+            return argb;
+        }
+    }
+
+    /**
+     * The part of the map to send after an update.
+     *
+     * @param colors the ARGB colors of the rectangle, or null if no pixels need to be sent
+     */
+    public record Update(int x, int y, int width, int height, @Nullable int[] colors) {
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2019-2022 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.map;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.geysermc.geyser.session.GeyserSession;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shares map images between sessions connected to the same server, as map-art servers may show hundreds of maps
+ * to every player.
+ * <p>
+ * Sessions keep the canvases they use, so a canvas evicted here is only no longer shared with new sessions.
+ * Players behind a proxy may connect to the same address while being on different servers with clashing map ids,
+ * and servers may render a map differently for each player; their updates then keep overwriting each other in the
+ * canvas. Each session still only ever sends its client what it was sent itself, see {@link MapCanvas}.
+ */
+public final class SharedMapStore {
+    private static final Cache<Key, MapCanvas> CANVASES = CacheBuilder.newBuilder()
+            .maximumSize(4096)
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .build();
+
+    private SharedMapStore() {
+    }
+
+    public static MapCanvas acquire(GeyserSession session, long mapId) {
+        Key key = new Key(session.remoteServer().address(), session.remoteServer().port(), mapId);
+        return CANVASES.asMap().computeIfAbsent(key, k -> new MapCanvas());
+    }
+
+    /**
+     * @return how many maps are currently shared
+     */
+    public static long size() {
+        return CANVASES.size();
+    }
+
+    private record Key(String address, int port, long mapId) {
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2019-2022 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.physics;
+
+import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.translator.collision.BlockCollision;
+import org.geysermc.geyser.util.BlockUtils;
+
+import java.util.Arrays;
+
+/**
+ * Caches the collision of the blocks around the player, so the many passes of movement correction done for every
+ * movement packet don't each look up the same blocks in the world again.
+ * <p>
+ * Entries are invalidated by bumping a generation counter, so clearing the cache never needs to touch the arrays.
+ */
+final class BlockCollisionCache {
+    private static final int SIZE_BITS = 4;
+    private static final int SIZE = 1 << SIZE_BITS;
+    private static final int MASK = SIZE - 1;
+    /**
+     * How close the player can get to an edge of the cached area before it is moved
+     */
+    private static final int MARGIN = 4;
+
+    private final GeyserSession session;
+    private final BlockCollision[] collisions = new BlockCollision[SIZE * SIZE * SIZE];
+    private final int[] generations = new int[SIZE * SIZE * SIZE];
+    private int generation = 1;
+
+    private int originX;
+    private int originY;
+    private int originZ;
+
+    BlockCollisionCache(GeyserSession session) {
+        this.session = session;
+    }
+
+    BlockCollision get(int x, int y, int z) {
+        int relativeX = x - originX;
+        int relativeY = y - originY;
+        int relativeZ = z - originZ;
+        if (((relativeX | relativeY | relativeZ) & ~MASK) != 0) {
+            // Outside of the cached area
+            return BlockUtils.getCollisionAt(session, x, y, z);
+        }
+
+        int index = index(relativeX, relativeY, relativeZ);
+        if (generations[index] == generation) {
+            return collisions[index];
+        }
+        BlockCollision collision = BlockUtils.getCollisionAt(session, x, y, z);
+        collisions[index] = collision;
+        generations[index] = generation;
+        return collision;
+    }
+
+    /**
+     * Moves the cached area so it surrounds the given block, if it doesn't already.
+     */
+    void center(int x, int y, int z) {
+        if (isWithinMargin(x - originX) && isWithinMargin(y - originY) && isWithinMargin(z - originZ)) {
+            return;
+        }
+        originX = x - SIZE / 2;
+        originY = y - SIZE / 2;
+        originZ = z - SIZE / 2;
+        invalidate();
+    }
+
+    void invalidate() {
+        if (++generation == 0) {
+            // Overflowed; make sure no old entry can match again
+            Arrays.fill(generations, 0);
+            generation = 1;
+        }
+    }
+
+    void invalidate(int x, int y, int z) {
+        int relativeX = x - originX;
+        int relativeY = y - originY;
+        int relativeZ = z - originZ;
+        if (((relativeX | relativeY | relativeZ) & ~MASK) == 0) {
+            generations[index(relativeX, relativeY, relativeZ)] = 0;
+        }
+    }
+
+    private static boolean isWithinMargin(int relative) {
+        return relative >= MARGIN && relative < SIZE - MARGIN;
+    }
+
+    private static int index(int x, int y, int z) {
+        return (y << (SIZE_BITS * 2)) | (z << SIZE_BITS) | x;
+    }
+}
@@ -114,14 +114,16 @@ public class BoundingBox implements Cloneable {
             }
         }
         if (offset > 0) {
-            double min = axis.choose(getMin().add(xOffset, yOffset, zOffset));
-            double max = axis.choose(otherBoundingBox.getMax());
+            double min = axis.choose(middleX - sizeX / 2 + xOffset, middleY - sizeY / 2 + yOffset, middleZ - sizeZ / 2 + zOffset);
+            double max = axis.choose(otherBoundingBox.middleX + otherBoundingBox.sizeX / 2,
+                    otherBoundingBox.middleY + otherBoundingBox.sizeY / 2, otherBoundingBox.middleZ + otherBoundingBox.sizeZ / 2);
             if ((min - max) >= -2.0 * CollisionManager.COLLISION_TOLERANCE) {
                 offset = Math.min(min - max, offset);
             }
         } else if (offset < 0) {
-            double min = axis.choose(otherBoundingBox.getMin());
-            double max = axis.choose(getMax().add(xOffset, yOffset, zOffset));
+            double min = axis.choose(otherBoundingBox.middleX - otherBoundingBox.sizeX / 2,
+                    otherBoundingBox.middleY - otherBoundingBox.sizeY / 2, otherBoundingBox.middleZ - otherBoundingBox.sizeZ / 2);
+            double max = axis.choose(middleX + sizeX / 2 + xOffset, middleY + sizeY / 2 + yOffset, middleZ + sizeZ / 2 + zOffset);
             if ((min - max) >= -2.0 * CollisionManager.COLLISION_TOLERANCE) {
                 offset = Math.max(max - min, offset);
             }
@@ -41,11 +41,8 @@ import org.geysermc.geyser.translator.collision.BlockCollision;
 import org.geysermc.geyser.translator.collision.ScaffoldingCollision;
 import org.geysermc.geyser.level.block.BlockStateValues;
 import org.geysermc.geyser.level.block.BlockPositionIterator;
-import org.geysermc.geyser.util.BlockUtils;
+import org.geysermc.geyser.util.MathUtils;
 
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
-import java.util.Locale;
 
 public class CollisionManager {
 
@@ -54,6 +51,16 @@ public class CollisionManager {
     @Getter
     private final BoundingBox playerBoundingBox;
 
+    /**
+     * The collision of the blocks around the player
+     */
+    private final BlockCollisionCache collisionCache;
+
+    /**
+     * Reused when checking how far the player can step up, to avoid cloning the bounding box on every movement
+     */
+    private final BoundingBox stepUpBoundingBox = new BoundingBox(0, 0, 0, 0, 0, 0);
+
     /**
      * Whether the player is inside scaffolding
      */
@@ -71,12 +78,6 @@ public class CollisionManager {
      * This check doesn't allow players right up against the block, so they must be pushed slightly away.
      */
     public static final double COLLISION_TOLERANCE = 0.00001;
-    /**
-     * Trims Y coordinates when jumping to prevent rounding issues being sent to the server.
-     * The locale used is necessary so other regions don't use <code>,</code> as their decimal separator.
-     */
-    private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat("#.#####", new DecimalFormatSymbols(Locale.ENGLISH));
-
     private static final double PLAYER_STEP_UP = 0.6;
 
     /**
@@ -88,6 +89,21 @@ public class CollisionManager {
     public CollisionManager(GeyserSession session) {
         this.session = session;
         this.playerBoundingBox = new BoundingBox(0, 0, 0, 0.6, 1.8, 0.6);
+        this.collisionCache = new BlockCollisionCache(session);
+    }
+
+    /**
+     * Forgets all cached block collisions, for example when chunks are loaded or unloaded.
+     */
+    public void invalidateCollisionCache() {
+        collisionCache.invalidate();
+    }
+
+    /**
+     * Forgets the cached collision of one block, as it has been changed.
+     */
+    public void invalidateCollisionCache(int x, int y, int z) {
+        collisionCache.invalidate(x, y, z);
     }
 
     /**
@@ -138,18 +154,36 @@ public class CollisionManager {
         if (pistonCache.isPlayerAttachedToHoney()) {
             return null;
         }
-        // We need to parse the float as a string since casting a float to a double causes us to
-        // lose precision and thus, causes players to get stuck when walking near walls
         double javaY = bedrockPosition.getY() - EntityDefinitions.PLAYER.offset();
 
-        Vector3d position = Vector3d.from(Double.parseDouble(Float.toString(bedrockPosition.getX())), javaY,
-                Double.parseDouble(Float.toString(bedrockPosition.getZ())));
+        collisionCache.center((int) Math.floor(bedrockPosition.getX()), (int) Math.floor(javaY), (int) Math.floor(bedrockPosition.getZ()));
+        if (session.getGeyser().getWorldManager().hasOwnChunkCache()) {
+            // Blocks are read straight from the server's world, which doesn't tell us when they change
+            collisionCache.invalidate();
+        }
 
-        Vector3d startingPos = playerBoundingBox.getBottomCenter();
-        Vector3d movement = position.sub(startingPos);
-        Vector3d adjustedMovement = correctPlayerMovement(movement, false, teleported);
-        playerBoundingBox.translate(adjustedMovement.getX(), adjustedMovement.getY(), adjustedMovement.getZ());
-        playerBoundingBox.translate(pistonCache.getPlayerMotion().getX(), pistonCache.getPlayerMotion().getY(), pistonCache.getPlayerMotion().getZ());
+        // We need the decimal value of the float since casting a float to a double causes us to
+        // lose precision and thus, causes players to get stuck when walking near walls
+        double positionX = MathUtils.floatToDecimalDouble(bedrockPosition.getX());
+        double positionZ = MathUtils.floatToDecimalDouble(bedrockPosition.getZ());
+
+        // Kept as primitives, as this runs for every movement packet
+        double movementX = positionX - playerBoundingBox.getMiddleX();
+        double movementY = javaY - (playerBoundingBox.getMiddleY() - playerBoundingBox.getSizeY() / 2);
+        double movementZ = positionZ - playerBoundingBox.getMiddleZ();
+        double adjustedX = movementX;
+        double adjustedY = movementY;
+        double adjustedZ = movementZ;
+        if (!teleported && !pistonCache.getPistons().isEmpty()) {
+            // Only pistons can change movement here
+            Vector3d adjustedMovement = correctPlayerMovement(Vector3d.from(movementX, movementY, movementZ), false, false);
+            adjustedX = adjustedMovement.getX();
+            adjustedY = adjustedMovement.getY();
+            adjustedZ = adjustedMovement.getZ();
+        }
+        playerBoundingBox.translate(adjustedX, adjustedY, adjustedZ);
+        Vector3f playerMotion = pistonCache.getPlayerMotion();
+        playerBoundingBox.translate(playerMotion.getX(), playerMotion.getY(), playerMotion.getZ());
         // Correct player position
         if (!correctPlayerPosition()) {
             // Cancel the movement if it needs to be cancelled
@@ -162,23 +196,32 @@ public class CollisionManager {
             return null;
         }
 
-        position = playerBoundingBox.getBottomCenter();
+        double x = playerBoundingBox.getMiddleX();
+        double y = playerBoundingBox.getMiddleY() - playerBoundingBox.getSizeY() / 2;
+        double z = playerBoundingBox.getMiddleZ();
 
-        boolean newOnGround = adjustedMovement.getY() != movement.getY() && movement.getY() < 0 || onGround;
+        boolean newOnGround = adjustedY != movementY && movementY < 0 || onGround;
         // Send corrected position to Bedrock if they differ by too much to prevent de-syncs
-        if (onGround != newOnGround || movement.distanceSquared(adjustedMovement) > INCORRECT_MOVEMENT_THRESHOLD) {
+        if (onGround != newOnGround || distanceSquared(movementX, movementY, movementZ, adjustedX, adjustedY, adjustedZ) > INCORRECT_MOVEMENT_THRESHOLD) {
             PlayerEntity playerEntity = session.getPlayerEntity();
-            if (pistonCache.getPlayerMotion().equals(Vector3f.ZERO) && !pistonCache.isPlayerSlimeCollision()) {
-                playerEntity.moveAbsolute(position.toFloat(), playerEntity.getYaw(), playerEntity.getPitch(), playerEntity.getHeadYaw(), newOnGround, true);
+            if (playerMotion.equals(Vector3f.ZERO) && !pistonCache.isPlayerSlimeCollision()) {
+                playerEntity.moveAbsolute(Vector3f.from(x, y, z), playerEntity.getYaw(), playerEntity.getPitch(), playerEntity.getHeadYaw(), newOnGround, true);
             }
         }
 
         if (!onGround) {
             // Trim the position to prevent rounding errors that make Java think we are clipping into a block
-            position = Vector3d.from(position.getX(), Double.parseDouble(DECIMAL_FORMAT.format(position.getY())), position.getZ());
+            y = MathUtils.trimToFiveDecimals(y);
         }
 
-        return position;
+        return Vector3d.from(x, y, z);
+    }
+
+    private static double distanceSquared(double x1, double y1, double z1, double x2, double y2, double z2) {
+        double dx = x1 - x2;
+        double dy = y1 - y2;
+        double dz = z1 - z2;
+        return dx * dx + dy * dy + dz * dz;
     }
 
     // TODO: This makes the player look upwards for some reason, rotation values must be wrong
@@ -196,23 +239,25 @@ public class CollisionManager {
     }
 
     public BlockPositionIterator collidableBlocksIterator(BoundingBox box) {
-        Vector3d position = Vector3d.from(box.getMiddleX(),
-                box.getMiddleY() - (box.getSizeY() / 2),
-                box.getMiddleZ());
+        return collidableBlocksIterator(box.getMiddleX(), box.getMiddleY(), box.getMiddleZ(), box.getSizeX(), box.getSizeY(), box.getSizeZ());
+    }
+
+    private BlockPositionIterator collidableBlocksIterator(double middleX, double middleY, double middleZ, double sizeX, double sizeY, double sizeZ) {
+        double bottomY = middleY - (sizeY / 2);
 
         // Expand volume by 1 in each direction to include moving blocks
         double pistonExpand = session.getPistonCache().getPistons().isEmpty() ? 0 : 1;
 
         // Loop through all blocks that could collide
-        int minCollisionX = (int) Math.floor(position.getX() - ((box.getSizeX() / 2) + COLLISION_TOLERANCE + pistonExpand));
-        int maxCollisionX = (int) Math.floor(position.getX() + (box.getSizeX() / 2) + COLLISION_TOLERANCE + pistonExpand);
+        int minCollisionX = (int) Math.floor(middleX - ((sizeX / 2) + COLLISION_TOLERANCE + pistonExpand));
+        int maxCollisionX = (int) Math.floor(middleX + (sizeX / 2) + COLLISION_TOLERANCE + pistonExpand);
 
         // Y extends 0.5 blocks down because of fence hitboxes
-        int minCollisionY = (int) Math.floor(position.getY() - 0.5 - COLLISION_TOLERANCE - pistonExpand / 2.0);
-        int maxCollisionY = (int) Math.floor(position.getY() + box.getSizeY() + pistonExpand);
+        int minCollisionY = (int) Math.floor(bottomY - 0.5 - COLLISION_TOLERANCE - pistonExpand / 2.0);
+        int maxCollisionY = (int) Math.floor(bottomY + sizeY + pistonExpand);
 
-        int minCollisionZ = (int) Math.floor(position.getZ() - ((box.getSizeZ() / 2) + COLLISION_TOLERANCE + pistonExpand));
-        int maxCollisionZ = (int) Math.floor(position.getZ() + (box.getSizeZ() / 2) + COLLISION_TOLERANCE + pistonExpand);
+        int minCollisionZ = (int) Math.floor(middleZ - ((sizeZ / 2) + COLLISION_TOLERANCE + pistonExpand));
+        int maxCollisionZ = (int) Math.floor(middleZ + (sizeZ / 2) + COLLISION_TOLERANCE + pistonExpand);
 
         return new BlockPositionIterator(minCollisionX, minCollisionY, minCollisionZ, maxCollisionX, maxCollisionY, maxCollisionZ);
     }
@@ -235,7 +280,7 @@ public class CollisionManager {
         // Used when correction code needs to be run before the main correction
         BlockPositionIterator iter = session.getCollisionManager().playerCollidableBlocksIterator();
         for (; iter.hasNext(); iter.next()) {
-            BlockCollision blockCollision = BlockUtils.getCollisionAt(session, iter.getX(), iter.getY(), iter.getZ());
+            BlockCollision blockCollision = collisionCache.get(iter.getX(), iter.getY(), iter.getZ());
             if (blockCollision != null) {
                 blockCollision.beforeCorrectPosition(iter.getX(), iter.getY(), iter.getZ(), playerBoundingBox);
             }
@@ -243,7 +288,7 @@ public class CollisionManager {
 
         // Main correction code
         for (iter.reset(); iter.hasNext(); iter.next()) {
-            BlockCollision blockCollision = BlockUtils.getCollisionAt(session, iter.getX(), iter.getY(), iter.getZ());
+            BlockCollision blockCollision = collisionCache.get(iter.getX(), iter.getY(), iter.getZ());
             if (blockCollision != null) {
                 if (!blockCollision.correctPosition(session, iter.getX(), iter.getY(), iter.getZ(), playerBoundingBox)) {
                     return false;
@@ -279,7 +324,13 @@ public class CollisionManager {
             Vector3d horizontalMovement = Vector3d.from(movement.getX(), 0, movement.getZ());
             Vector3d stepUpMovement = correctMovementForCollisions(horizontalMovement.up(stepUp), boundingBox, checkWorld);
 
-            BoundingBox stretchedBoundingBox = boundingBox.clone();
+            BoundingBox stretchedBoundingBox = stepUpBoundingBox;
+            stretchedBoundingBox.setMiddleX(boundingBox.getMiddleX());
+            stretchedBoundingBox.setMiddleY(boundingBox.getMiddleY());
+            stretchedBoundingBox.setMiddleZ(boundingBox.getMiddleZ());
+            stretchedBoundingBox.setSizeX(boundingBox.getSizeX());
+            stretchedBoundingBox.setSizeY(boundingBox.getSizeY());
+            stretchedBoundingBox.setSizeZ(boundingBox.getSizeZ());
             stretchedBoundingBox.extend(horizontalMovement);
             double maxStepUp = correctMovementForCollisions(Vector3d.from(0, stepUp, 0), stretchedBoundingBox, checkWorld).getY();
             if (maxStepUp < stepUp) { // The player collided with a block above them
@@ -314,9 +365,11 @@ public class CollisionManager {
         double movementY = movement.getY();
         double movementZ = movement.getZ();
 
-        BoundingBox movementBoundingBox = boundingBox.clone();
-        movementBoundingBox.extend(movement);
-        BlockPositionIterator iter = collidableBlocksIterator(movementBoundingBox);
+        // Same as extending a copy of the bounding box by the movement, without the copy
+        BlockPositionIterator iter = collidableBlocksIterator(boundingBox.getMiddleX() + movementX / 2,
+                boundingBox.getMiddleY() + movementY / 2, boundingBox.getMiddleZ() + movementZ / 2,
+                boundingBox.getSizeX() + Math.abs(movementX), boundingBox.getSizeY() + Math.abs(movementY),
+                boundingBox.getSizeZ() + Math.abs(movementZ));
         if (Math.abs(movementY) > CollisionManager.COLLISION_TOLERANCE) {
             movementY = computeCollisionOffset(boundingBox, Axis.Y, movementY, iter, checkWorld);
             boundingBox.translate(0, movementY, 0);
@@ -340,17 +393,21 @@ public class CollisionManager {
     }
 
     private double computeCollisionOffset(BoundingBox boundingBox, Axis axis, double offset, BlockPositionIterator iter, boolean checkWorld) {
+        PistonCache pistonCache = session.getPistonCache();
+        boolean checkPistons = !pistonCache.getPistons().isEmpty();
         for (iter.reset(); iter.hasNext(); iter.next()) {
             int x = iter.getX();
             int y = iter.getY();
             int z = iter.getZ();
             if (checkWorld) {
-                BlockCollision blockCollision = BlockUtils.getCollisionAt(session, x, y, z);
+                BlockCollision blockCollision = collisionCache.get(x, y, z);
                 if (blockCollision != null && !(blockCollision instanceof ScaffoldingCollision)) {
                     offset = blockCollision.computeCollisionOffset(x, y, z, boundingBox, axis, offset);
                 }
             }
-            offset = session.getPistonCache().computeCollisionOffset(Vector3i.from(x, y, z), boundingBox, axis, offset);
+            if (checkPistons) {
+                offset = pistonCache.computeCollisionOffset(Vector3i.from(x, y, z), boundingBox, axis, offset);
+            }
             if (Math.abs(offset) < COLLISION_TOLERANCE) {
                 return 0;
             }
@@ -379,7 +436,7 @@ public class CollisionManager {
      */
     private boolean checkPose(float height) {
         Vector3i position = session.getPlayerEntity().getPosition().toInt();
-        BlockCollision collision = BlockUtils.getCollisionAt(session, position);
+        BlockCollision collision = collisionCache.get(position.getX(), position.getY(), position.getZ());
         if (collision != null) {
             // Determine, if the player's bounding box *were* at full height, if it would intersect with the block
             // at the current location.
@@ -60,6 +60,10 @@ public class ConnectorServerEventHandler implements BedrockServerEventHandler {
     private final GeyserImpl geyser;
     // There is a constructor that doesn't require inputting threads, but older Netty versions don't have it
     private final DefaultEventLoopGroup eventLoopGroup = new DefaultEventLoopGroup(0, new DefaultThreadFactory("Geyser player thread"));
+    /**
+     * The last pong sent, which is reused until the ping information or the player count changes
+     */
+    private volatile CachedPong cachedPong;
 
     public ConnectorServerEventHandler(GeyserImpl geyser) {
         this.geyser = geyser;
@@ -100,6 +104,13 @@ public class ConnectorServerEventHandler implements BedrockServerEventHandler {
             pingInfo = pingPassthrough.getPingInformation(inetSocketAddress);
         }
 
+        int playerCount = geyser.getSessionManager().getSessions().size();
+        CachedPong cached = this.cachedPong;
+        if (cached != null && cached.pingInfo() == pingInfo && cached.playerCount() == playerCount) {
+            // Nothing has changed since the last ping, so don't convert the MOTD again
+            return cached.pong();
+        }
+
         BedrockPong pong = new BedrockPong();
         pong.setEdition("MCPE");
         pong.setGameType("Survival"); // Can only be Survival or Creative as of 1.16.210.59
@@ -124,7 +135,7 @@ public class ConnectorServerEventHandler implements BedrockServerEventHandler {
             pong.setPlayerCount(pingInfo.getPlayers().getOnline());
             pong.setMaximumPlayerCount(pingInfo.getPlayers().getMax());
         } else {
-            pong.setPlayerCount(geyser.getSessionManager().getSessions().size());
+            pong.setPlayerCount(playerCount);
             pong.setMaximumPlayerCount(config.getMaxPlayers());
         }
 
@@ -161,6 +172,7 @@ public class ConnectorServerEventHandler implements BedrockServerEventHandler {
             pong.setMaximumPlayerCount(pong.getPlayerCount() + 1);
         }
 
+        this.cachedPong = new CachedPong(pingInfo, playerCount, pong);
         return pong;
     }
 
@@ -193,4 +205,11 @@ public class ConnectorServerEventHandler implements BedrockServerEventHandler {
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * @param pingInfo the ping information the pong was built from, compared by identity as ping passthroughs
+     *                 only replace it when they receive a new response
+     */
+    private record CachedPong(GeyserPingInfo pingInfo, int playerCount, BedrockPong pong) {
+    }
+}
@@ -43,8 +43,8 @@ import org.geysermc.geyser.registry.Registries;
 import org.geysermc.geyser.text.GeyserLocale;
 import org.geysermc.geyser.util.*;
 
-import java.io.FileInputStream;
-import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 public class UpstreamPacketHandler extends LoggingPacketHandler {
 
@@ -88,11 +88,62 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
         session.setBlockMappings(BlockRegistries.BLOCKS.forVersion(loginPacket.getProtocolVersion()));
         session.setItemMappings(Registries.ITEMS.forVersion(loginPacket.getProtocolVersion()));
 
-        LoginEncryptionUtils.encryptPlayerConnection(session, loginPacket);
+        // Verifying the login is expensive, so keep it off the network thread to not stall other players
+        long loginStart = System.currentTimeMillis();
+        ExecutorService loginExecutor = geyser.getLoginExecutor();
+        if (loginExecutor == null) {
+            LoginEncryptionUtils.VerifiedLogin login;
+            try {
+                login = LoginEncryptionUtils.verifyLogin(geyser, loginPacket);
+            } catch (Exception e) {
+                failLogin(e);
+                return true;
+            }
+            completeLogin(login, loginStart);
+            return true;
+        }
+
+        try {
+            loginExecutor.execute(() -> {
+                if (session.isClosed()) {
+                    // Disconnected while waiting to be verified
+                    return;
+                }
+
+                try {
+                    LoginEncryptionUtils.VerifiedLogin login = LoginEncryptionUtils.verifyLogin(geyser, loginPacket);
+                    // Only the verification belongs on this thread; the session is only changed on its own
+                    session.executeInEventLoop(() -> completeLogin(login, loginStart));
+                } catch (Throwable e) {
+                    session.executeInEventLoop(() -> failLogin(e));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Too many players are logging in at once
+            session.disconnect("disconnectionScreen.serverFull");
+        }
+        return true;
+    }
+
+    private void failLogin(Throwable cause) {
+        geyser.getLogger().error("Unable to complete login", cause);
+        if (!session.isClosed()) {
+            session.disconnect("disconnectionScreen.internalError.cantConnect");
+        }
+    }
+
+    private void completeLogin(LoginEncryptionUtils.VerifiedLogin login, long loginStart) {
+        if (session.isClosed()) {
+            // Disconnected while waiting to be verified
+            return;
+        }
+
+        LoginEncryptionUtils.completeLogin(session, login);
+        LoginEncryptionUtils.getLoginLatency().record(System.currentTimeMillis() - loginStart);
 
         if (session.isClosed()) {
             // Can happen if Xbox validation fails
-            return true;
+            return;
         }
 
         PlayStatusPacket playStatus = new PlayStatusPacket();
@@ -105,14 +156,13 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
         for(ResourcePack resourcePack : ResourcePack.PACKS.values()) {
             ResourcePackManifest.Header header = resourcePack.getManifest().getHeader();
             resourcePacksInfo.getResourcePackInfos().add(new ResourcePacksInfoPacket.Entry(
-                    header.getUuid().toString(), header.getVersionString(), resourcePack.getFile().length(),
+                    header.getUuid().toString(), header.getVersionString(), resourcePack.getLength(),
                             "", "", "", false, false));
         }
         resourcePacksInfo.setForcedToAccept(GeyserImpl.getInstance().getConfig().isForceResourcePacks());
         session.sendUpstreamPacket(resourcePacksInfo);
 
         GeyserLocale.loadGeyserLocale(session.locale());
-        return true;
     }
 
     @Override
@@ -136,10 +186,9 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
                     ResourcePackManifest.Header header = pack.getManifest().getHeader();
 
                     data.setPackId(header.getUuid());
-                    int chunkCount = (int) Math.ceil((int) pack.getFile().length() / (double) ResourcePack.CHUNK_SIZE);
-                    data.setChunkCount(chunkCount);
-                    data.setCompressedPackSize(pack.getFile().length());
-                    data.setMaxChunkSize(ResourcePack.CHUNK_SIZE);
+                    data.setChunkCount(pack.getChunkCount());
+                    data.setCompressedPackSize(pack.getLength());
+                    data.setMaxChunkSize(pack.getChunkSize());
                     data.setHash(pack.getSha256());
                     data.setPackVersion(packID[1]);
                     data.setPremium(false);
@@ -181,6 +230,12 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
         return true;
     }
 
+    @Override
+    public boolean handle(ClientCacheStatusPacket packet) {
+        session.executeInEventLoop(() -> session.getChunkBlobCache().setSupported(packet.isSupported()));
+        return true;
+    }
+
     @Override
     public boolean handle(ModalFormResponsePacket packet) {
         session.executeInEventLoop(() -> session.getFormCache().handleResponse(packet));
@@ -239,21 +294,10 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
         ResourcePack pack = ResourcePack.PACKS.get(packet.getPackId().toString());
 
         data.setChunkIndex(packet.getChunkIndex());
-        data.setProgress(packet.getChunkIndex() * ResourcePack.CHUNK_SIZE);
+        data.setProgress(packet.getChunkIndex() * pack.getChunkSize());
         data.setPackVersion(packet.getPackVersion());
         data.setPackId(packet.getPackId());
-
-        int offset = packet.getChunkIndex() * ResourcePack.CHUNK_SIZE;
-        byte[] packData = new byte[(int) MathUtils.constrain(pack.getFile().length() - offset, 0, ResourcePack.CHUNK_SIZE)];
-
-        try (InputStream inputStream = new FileInputStream(pack.getFile())) {
-            inputStream.skip(offset);
-            inputStream.read(packData, 0, packData.length);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-        data.setData(packData);
+        data.setData(pack.getChunk(packet.getChunkIndex()));
 
         session.sendUpstreamPacket(data);
         return true;
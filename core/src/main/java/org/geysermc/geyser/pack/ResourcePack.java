@@ -31,7 +31,12 @@ import org.geysermc.geyser.util.FileUtils;
 import org.geysermc.geyser.text.GeyserLocale;
 
 import java.io.File;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
@@ -46,12 +51,21 @@ public class ResourcePack {
     public static final Map<String, ResourcePack> PACKS = new HashMap<>();
 
     /**
-     * The size of each chunk to use when sending the resource packs to clients in bytes
+     * The default size of each chunk to use when sending the resource packs to clients in bytes
      */
     public static final int CHUNK_SIZE = 102400;
 
     private byte[] sha256;
     private File file;
+    /**
+     * The pack file mapped into memory, so chunks can be read without opening the file for every request
+     */
+    private ByteBuffer data;
+    private int chunkSize;
+    /**
+     * Chunks that have already been read, shared by every player downloading this pack
+     */
+    private AtomicReferenceArray<SoftReference<byte[]>> chunks;
     private ResourcePackManifest manifest;
     private ResourcePackManifest.Version version;
 
@@ -75,11 +89,25 @@ public class ResourcePack {
             return;
         }
 
+        int chunkSize = GeyserImpl.getInstance().getConfig().getResourcePackChunkSize() * 1024;
+        if (chunkSize <= 0) {
+            chunkSize = CHUNK_SIZE;
+        }
+
         for (File file : resourcePacks) {
             if (file.getName().endsWith(".zip") || file.getName().endsWith(".mcpack")) {
                 ResourcePack pack = new ResourcePack();
 
                 pack.sha256 = FileUtils.calculateSHA256(file);
+                try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                    pack.data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                } catch (Exception e) {
+                    GeyserImpl.getInstance().getLogger().error(GeyserLocale.getLocaleStringLog("geyser.resource_pack.broken", file.getName()));
+                    e.printStackTrace();
+                    continue;
+                }
+                pack.chunkSize = chunkSize;
+                pack.chunks = new AtomicReferenceArray<>(pack.getChunkCount());
 
                 Stream<? extends ZipEntry> stream = null;
                 try {
@@ -124,6 +152,44 @@ public class ResourcePack {
         return file;
     }
 
+    /**
+     * @return the size of the pack file in bytes
+     */
+    public int getLength() {
+        return data.capacity();
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getChunkCount() {
+        return (int) Math.ceil(getLength() / (double) chunkSize);
+    }
+
+    /**
+     * Gets a chunk of the pack file to send to a client. The returned array is shared and must not be modified.
+     *
+     * @param index the index of the chunk
+     * @return the chunk, or an empty array if the index is out of range
+     */
+    public byte[] getChunk(int index) {
+        if (index < 0 || index >= chunks.length()) {
+            return new byte[0];
+        }
+
+        SoftReference<byte[]> reference = chunks.get(index);
+        byte[] chunk = reference != null ? reference.get() : null;
+        if (chunk == null) {
+            int offset = index * chunkSize;
+            chunk = new byte[Math.min(chunkSize, getLength() - offset)];
+            // Absolute reads don't touch the buffer's position, so this is safe from multiple threads
+            data.get(offset, chunk);
+            chunks.set(index, new SoftReference<>(chunk));
+        }
+        return chunk;
+    }
+
     public ResourcePackManifest getManifest() {
         return manifest;
     }
@@ -25,30 +25,58 @@
 
 package org.geysermc.geyser.ping;
 
-import com.fasterxml.jackson.core.JsonParseException;
-import com.fasterxml.jackson.databind.JsonMappingException;
-import com.nukkitx.nbt.util.VarInts;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.*;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import org.geysermc.geyser.GeyserImpl;
 import org.geysermc.geyser.network.GameProtocol;
 
-import java.io.ByteArrayOutputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
-import java.io.IOException;
-import java.net.ConnectException;
 import java.net.InetSocketAddress;
-import java.net.Socket;
-import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 public class GeyserLegacyPingPassthrough implements IGeyserPingPassthrough, Runnable {
+    private static final int TIMEOUT_MILLIS = 5000;
+    /**
+     * The longest we wait between pings when the remote server can't be reached
+     */
+    private static final int MAX_BACKOFF_SECONDS = 60;
+
+    /**
+     * Pings are sent without blocking, so a single thread is enough for every ping.
+     * Shared across reloads, and a daemon thread so it never holds up shutting down.
+     */
+    private static EventLoopGroup eventLoopGroup;
+
     private final GeyserImpl geyser;
+    /**
+     * The scheduler of the Geyser instance this was started for. Once a reload shuts it down, a pending ping is
+     * dropped and pings stop being rescheduled, even if one completes after the reload.
+     */
+    private final ScheduledExecutorService scheduledThread;
+    private final int interval;
 
     public GeyserLegacyPingPassthrough(GeyserImpl geyser) {
         this.geyser = geyser;
+        this.scheduledThread = geyser.getScheduledThread();
+        // Ensure delay is not zero
+        this.interval = Math.max(1, geyser.getConfig().getPingPassthroughInterval());
     }
 
-    private GeyserPingInfo pingInfo;
+    private volatile GeyserPingInfo pingInfo;
+    /**
+     * How many pings in a row have failed, used to back off from a server that is down
+     */
+    private int failures;
 
     /**
      * Start legacy ping passthrough thread
@@ -58,10 +86,8 @@ public class GeyserLegacyPingPassthrough implements IGeyserPingPassthrough, Runn
     public static IGeyserPingPassthrough init(GeyserImpl geyser) {
         if (geyser.getConfig().isPassthroughMotd() || geyser.getConfig().isPassthroughPlayerCounts()) {
             GeyserLegacyPingPassthrough pingPassthrough = new GeyserLegacyPingPassthrough(geyser);
-            // Ensure delay is not zero
-            int interval = (geyser.getConfig().getPingPassthroughInterval() == 0) ? 1 : geyser.getConfig().getPingPassthroughInterval();
-            geyser.getLogger().debug("Scheduling ping passthrough at an interval of " + interval + " second(s).");
-            geyser.getScheduledThread().scheduleAtFixedRate(pingPassthrough, 1, interval, TimeUnit.SECONDS);
+            geyser.getLogger().debug("Scheduling ping passthrough at an interval of " + pingPassthrough.interval + " second(s).");
+            pingPassthrough.scheduleNext(1);
             return pingPassthrough;
         }
         return null;
@@ -74,54 +100,172 @@ public class GeyserLegacyPingPassthrough implements IGeyserPingPassthrough, Runn
 
     @Override
     public void run() {
+        String address = geyser.getConfig().getRemote().getAddress();
+        int port = geyser.getConfig().getRemote().getPort();
         try {
-            Socket socket = new Socket();
-            String address = geyser.getConfig().getRemote().getAddress();
-            int port = geyser.getConfig().getRemote().getPort();
-            socket.connect(new InetSocketAddress(address, port), 5000);
-
-            ByteArrayOutputStream byteArrayStream = new ByteArrayOutputStream();
-            DataOutputStream handshake = new DataOutputStream(byteArrayStream);
-            handshake.write(0x0);
-            VarInts.writeUnsignedInt(handshake, GameProtocol.getJavaProtocolVersion());
-            VarInts.writeUnsignedInt(handshake, address.length());
-            handshake.writeBytes(address);
-            handshake.writeShort(port);
-            VarInts.writeUnsignedInt(handshake, 1);
-
-            DataOutputStream dataOutputStream = new DataOutputStream(socket.getOutputStream());
-            VarInts.writeUnsignedInt(dataOutputStream, byteArrayStream.size());
-            dataOutputStream.write(byteArrayStream.toByteArray());
-            dataOutputStream.writeByte(0x01);
-            dataOutputStream.writeByte(0x00);
-
-            DataInputStream dataInputStream = new DataInputStream(socket.getInputStream());
-            VarInts.readUnsignedInt(dataInputStream);
-            VarInts.readUnsignedInt(dataInputStream);
-            int length = VarInts.readUnsignedInt(dataInputStream);
-            byte[] buffer = new byte[length];
-            dataInputStream.readFully(buffer);
-            dataOutputStream.writeByte(0x09);
-            dataOutputStream.writeByte(0x01);
-            dataOutputStream.writeLong(System.currentTimeMillis());
-
-            VarInts.readUnsignedInt(dataInputStream);
-            String json = new String(buffer);
+            new Bootstrap()
+                    .group(eventLoopGroup())
+                    .channel(NioSocketChannel.class)
+                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, TIMEOUT_MILLIS)
+                    .handler(new ChannelInitializer<>() {
+                        @Override
+                        protected void initChannel(Channel channel) {
+                            channel.pipeline()
+                                    .addLast(new ReadTimeoutHandler(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
+                                    .addLast(new StatusHandler(address, port));
+                        }
+                    })
+                    .connect(address, port)
+                    .addListener((ChannelFutureListener) future -> {
+                        if (!future.isSuccess()) {
+                            onFailure(future.cause());
+                        }
+                    });
+        } catch (Exception e) {
+            onFailure(e);
+        }
+    }
 
+    private void onResponse(String json) {
+        try {
             this.pingInfo = GeyserImpl.JSON_MAPPER.readValue(json, GeyserPingInfo.class);
-
-            byteArrayStream.close();
-            handshake.close();
-            dataOutputStream.close();
-            dataInputStream.close();
-            socket.close();
-        } catch (SocketTimeoutException | ConnectException ex) {
-            this.pingInfo = null;
-            this.geyser.getLogger().debug("Connection timeout for ping passthrough.");
-        } catch (JsonParseException | JsonMappingException ex) {
+        } catch (JsonProcessingException ex) {
             this.geyser.getLogger().error("Failed to parse json when pinging server!", ex);
-        } catch (IOException e) {
-            e.printStackTrace();
         }
+        this.failures = 0;
+        scheduleNext(interval);
+    }
+
+    private void onFailure(Throwable cause) {
+        this.pingInfo = null;
+        this.geyser.getLogger().debug("Connection timeout for ping passthrough: " + cause);
+        this.failures++;
+        scheduleNext(Math.min(interval << Math.min(failures, 6), Math.max(interval, MAX_BACKOFF_SECONDS)));
+    }
+
+    private void scheduleNext(int delaySeconds) {
+        try {
+            scheduledThread.schedule(this, delaySeconds, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException ignored) {
+            // Geyser is shutting down or reloading
+        }
+    }
+
+    private static synchronized EventLoopGroup eventLoopGroup() {
+        if (eventLoopGroup == null) {
+            eventLoopGroup = new NioEventLoopGroup(1, new DefaultThreadFactory("Geyser ping passthrough", true));
+        }
+        return eventLoopGroup;
+    }
+
+    /**
+     * Sends a status request once connected, and reads the status response.
+     */
+    private class StatusHandler extends ByteToMessageDecoder {
+        private final String address;
+        private final int port;
+        private boolean done;
+
+        private StatusHandler(String address, int port) {
+            this.address = address;
+            this.port = port;
+        }
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) throws Exception {
+            byte[] addressBytes = address.getBytes(StandardCharsets.UTF_8);
+            ByteBuf handshake = ctx.alloc().buffer();
+            handshake.writeByte(0x00);
+            writeVarInt(handshake, GameProtocol.getJavaProtocolVersion());
+            writeVarInt(handshake, addressBytes.length);
+            handshake.writeBytes(addressBytes);
+            handshake.writeShort(port);
+            writeVarInt(handshake, 1);
+
+            ByteBuf request = ctx.alloc().buffer(handshake.readableBytes() + 7);
+            writeVarInt(request, handshake.readableBytes());
+            request.writeBytes(handshake);
+            handshake.release();
+            // Status request
+            request.writeByte(0x01);
+            request.writeByte(0x00);
+            ctx.writeAndFlush(request);
+
+            super.channelActive(ctx);
+        }
+
+        @Override
+        protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+            if (done) {
+                in.skipBytes(in.readableBytes());
+                return;
+            }
+
+            in.markReaderIndex();
+            int length = readVarInt(in);
+            if (length == -1 || in.readableBytes() < length) {
+                // Wait for the rest of the response
+                in.resetReaderIndex();
+                return;
+            }
+
+            ByteBuf packet = in.readSlice(length);
+            readVarInt(packet); // Packet ID
+            int jsonLength = readVarInt(packet);
+            if (jsonLength < 0 || jsonLength > packet.readableBytes()) {
+                fail(ctx, new IllegalStateException("Invalid status response"));
+                return;
+            }
+            String json = packet.toString(packet.readerIndex(), jsonLength, StandardCharsets.UTF_8);
+
+            done = true;
+            ctx.close();
+            onResponse(json);
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            fail(ctx, cause);
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            fail(ctx, new IllegalStateException("Connection closed before the status response"));
+            super.channelInactive(ctx);
+        }
+
+        private void fail(ChannelHandlerContext ctx, Throwable cause) {
+            if (!done) {
+                done = true;
+                ctx.close();
+                onFailure(cause);
+            }
+        }
+    }
+
+    private static void writeVarInt(ByteBuf buf, int value) {
+        while ((value & ~0x7F) != 0) {
+            buf.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf.writeByte(value);
+    }
+
+    /**
+     * @return the VarInt, or -1 if the buffer doesn't contain all of it yet
+     */
+    private static int readVarInt(ByteBuf buf) {
+        int value = 0;
+        for (int i = 0; i < 5; i++) {
+            if (!buf.isReadable()) {
+                return -1;
+            }
+            byte b = buf.readByte();
+            value |= (b & 0x7F) << (i * 7);
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("VarInt too big");
     }
 }
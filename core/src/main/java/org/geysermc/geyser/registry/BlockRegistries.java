@@ -26,9 +26,8 @@
 package org.geysermc.geyser.registry;
 
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
-import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
-import it.unimi.dsi.fastutil.ints.IntSet;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import org.geysermc.geyser.level.block.BlockStateFlags;
 import org.geysermc.geyser.registry.loader.RegistryLoaders;
 import org.geysermc.geyser.registry.populator.BlockRegistryPopulator;
 import org.geysermc.geyser.registry.type.BlockMapping;
@@ -68,9 +67,9 @@ public class BlockRegistries {
     public static final ArrayRegistry<String> CLEAN_JAVA_IDENTIFIERS = ArrayRegistry.create(RegistryLoaders.empty(() -> new String[] {}));
 
     /**
-     * A registry containing all the waterlogged blockstates.
+     * A registry containing the {@link BlockStateFlags} of every Java block state, indexed by Java block state ID.
      */
-    public static final SimpleRegistry<IntSet> WATERLOGGED = SimpleRegistry.create(RegistryLoaders.empty(IntOpenHashSet::new));
+    public static final SimpleRegistry<byte[]> BLOCK_STATE_FLAGS = SimpleRegistry.create(RegistryLoaders.empty(() -> new byte[0]));
 
     static {
         BlockRegistryPopulator.populate();
@@ -33,6 +33,7 @@ import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import lombok.AllArgsConstructor;
 import org.geysermc.geyser.GeyserImpl;
+import org.geysermc.geyser.level.block.BlockStateFlags;
 import org.geysermc.geyser.level.physics.BoundingBox;
 import org.geysermc.geyser.translator.collision.CollisionRemapper;
 import org.geysermc.geyser.translator.collision.BlockCollision;
@@ -74,6 +75,7 @@ public class CollisionRegistryLoader extends MultiResourceRegistryLoader<String,
         }
 
         BlockMapping[] blockMappings = BlockRegistries.JAVA_BLOCKS.get();
+        byte[] blockStateFlags = BlockRegistries.BLOCK_STATE_FLAGS.get();
 
         // Map of unique collisions to its instance
         Map<BlockCollision, BlockCollision> collisionInstances = new Object2ObjectOpenHashMap<>();
@@ -92,6 +94,10 @@ public class CollisionRegistryLoader extends MultiResourceRegistryLoader<String,
             }
 
             collisions.put(i, newCollision);
+
+            if (newCollision == null) {
+                blockStateFlags[i] |= BlockStateFlags.NO_COLLISION;
+            }
         }
         return collisions;
     }
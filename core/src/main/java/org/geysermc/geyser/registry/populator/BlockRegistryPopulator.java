@@ -37,6 +37,7 @@ import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectIntPair;
 import org.geysermc.geyser.GeyserImpl;
+import org.geysermc.geyser.level.block.BlockStateFlags;
 import org.geysermc.geyser.level.block.BlockStateValues;
 import org.geysermc.geyser.level.physics.PistonBehavior;
 import org.geysermc.geyser.registry.BlockRegistries;
@@ -171,14 +172,6 @@ public class BlockRegistryPopulator {
                     jigsawStateIds.add(bedrockRuntimeId);
                 }
 
-                boolean waterlogged = entry.getKey().contains("waterlogged=true")
-                        || javaId.contains("minecraft:bubble_column") || javaId.contains("minecraft:kelp") || javaId.contains("seagrass");
-
-                if (waterlogged) {
-                    int finalJavaRuntimeId = javaRuntimeId;
-                    BlockRegistries.WATERLOGGED.register(set -> set.add(finalJavaRuntimeId));
-                }
-
                 String cleanJavaIdentifier = BlockUtils.getCleanIdentifier(entry.getKey());
 
                 // Get the tag needed for non-empty flower pots
@@ -241,6 +234,7 @@ public class BlockRegistryPopulator {
         }
 
         BlockRegistries.JAVA_BLOCKS.set(new BlockMapping[blocksJson.size()]); // Set array size to number of blockstates
+        byte[] blockStateFlags = new byte[blocksJson.size()];
 
         Deque<String> cleanIdentifiers = new ArrayDeque<>();
 
@@ -304,6 +298,16 @@ public class BlockRegistryPopulator {
 
             BlockStateValues.storeBlockStateValues(entry.getKey(), javaRuntimeId, entry.getValue());
 
+            boolean waterlogged = javaId.contains("waterlogged=true")
+                    || javaId.contains("minecraft:bubble_column") || javaId.contains("minecraft:kelp") || javaId.contains("seagrass");
+            if (waterlogged) {
+                blockStateFlags[javaRuntimeId] |= BlockStateFlags.WATERLOGGED;
+            }
+
+            if (BlockStateValues.getFlowerPotValues().containsKey(javaRuntimeId) || BlockStateValues.getPistonValues().containsKey(javaRuntimeId)) {
+                blockStateFlags[javaRuntimeId] |= BlockStateFlags.BEDROCK_ONLY_BLOCK_ENTITY;
+            }
+
             String cleanJavaIdentifier = BlockUtils.getCleanIdentifier(entry.getKey());
             String bedrockIdentifier = entry.getValue().get("bedrock_identifier").asText();
 
@@ -387,6 +391,8 @@ public class BlockRegistryPopulator {
         BlockStateValues.JAVA_WATER_ID = waterRuntimeId;
 
         BlockRegistries.CLEAN_JAVA_IDENTIFIERS.set(cleanIdentifiers.toArray(new String[0]));
+        // Collision flags are added once collisions are loaded
+        BlockRegistries.BLOCK_STATE_FLAGS.set(blockStateFlags);
 
         BLOCKS_JSON = blocksJson;
     }
@@ -532,6 +532,7 @@ public class ItemRegistryPopulator {
                     .furnaceMinecartData(furnaceMinecartData)
                     .customItemsData(new ArrayList<>())
                     .build();
+            itemMappings.buildIndexes();
 
             Registries.ITEMS.register(palette.getValue().protocolVersion(), itemMappings);
 
@@ -30,7 +30,11 @@ import com.nukkitx.protocol.bedrock.data.inventory.ComponentItemData;
 import com.nukkitx.protocol.bedrock.data.inventory.ItemData;
 import com.nukkitx.protocol.bedrock.packet.StartGamePacket;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import lombok.Builder;
 import lombok.Value;
 import org.geysermc.geyser.GeyserImpl;
@@ -40,13 +44,27 @@ import javax.annotation.Nullable;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
 
 @Builder
 @Value
 public class ItemMappings {
 
-    Map<String, ItemMapping> cachedJavaMappings = new WeakHashMap<>();
+    /**
+     * Java identifier to its mapping.
+     */
+    Map<String, ItemMapping> javaIdentifierIndex = new Object2ObjectOpenHashMap<>();
+    /**
+     * Bedrock item ID and damage value to mapping. See {@link #bedrockKey(int, int)}.
+     */
+    Long2ObjectMap<ItemMapping> bedrockDataIndex = new Long2ObjectOpenHashMap<>();
+    /**
+     * Bedrock item ID and block runtime ID to mapping. See {@link #bedrockKey(int, int)}.
+     */
+    Long2ObjectMap<ItemMapping> bedrockBlockIndex = new Long2ObjectOpenHashMap<>();
+    /**
+     * Bedrock item ID to the mapping that is used regardless of the damage value.
+     */
+    Int2ObjectMap<ItemMapping> bedrockWildcardIndex = new Int2ObjectOpenHashMap<>();
 
     Int2ObjectMap<ItemMapping> items;
 
@@ -95,14 +113,7 @@ public class ItemMappings {
      * @return an item entry from the given java edition identifier
      */
     public ItemMapping getMapping(String javaIdentifier) {
-        return this.cachedJavaMappings.computeIfAbsent(javaIdentifier, key -> {
-            for (ItemMapping mapping : this.items.values()) {
-                if (mapping.getJavaIdentifier().equals(key)) {
-                    return mapping;
-                }
-            }
-            return null;
-        });
+        return this.javaIdentifierIndex.get(javaIdentifier);
     }
 
     /**
@@ -112,29 +123,19 @@ public class ItemMappings {
      * @return an item entry from the given item data
      */
     public ItemMapping getMapping(ItemData data) {
-        boolean isBlock = data.getBlockRuntimeId() != 0;
-        boolean hasDamage = data.getDamage() != 0;
-
-        for (ItemMapping mapping : this.items.values()) {
-            if (mapping.getBedrockId() == data.getId()) {
-                if (isBlock && !hasDamage) { // Pre-1.16.220 will not use block runtime IDs at all, so we shouldn't check either
-                    if (data.getBlockRuntimeId() != mapping.getBedrockBlockId()) {
-                        continue;
-                    }
-                } else {
-                    if (!(mapping.getBedrockData() == data.getDamage() ||
-                            // Make exceptions for potions, tipped arrows, and firework stars, whose damage values can vary
-                            (mapping.getJavaIdentifier().endsWith("potion") || mapping.getJavaIdentifier().equals("minecraft:arrow")
-                                    || mapping.getJavaIdentifier().equals("minecraft:firework_star")))) {
-                        continue;
-                    }
-                }
-                if (!this.javaOnlyItems.contains(mapping.getJavaIdentifier())) {
-                    // From a Bedrock item data, we aren't getting one of these items
-                    return mapping;
-                }
+        ItemMapping mapping;
+        if (data.getBlockRuntimeId() != 0 && data.getDamage() == 0) {
+            // Pre-1.16.220 will not use block runtime IDs at all, so we shouldn't check either
+            mapping = this.bedrockBlockIndex.get(bedrockKey(data.getId(), data.getBlockRuntimeId()));
+        } else {
+            mapping = this.bedrockDataIndex.get(bedrockKey(data.getId(), data.getDamage()));
+            if (mapping == null) {
+                mapping = this.bedrockWildcardIndex.get(data.getId());
             }
         }
+        if (mapping != null) {
+            return mapping;
+        }
 
         // This will hide the message when the player clicks with an empty hand
         if (data.getId() != 0 && data.getDamage() != 0) {
@@ -142,4 +143,56 @@ public class ItemMappings {
         }
         return ItemMapping.AIR;
     }
+
+    /**
+     * Builds the indexes used to look up mappings. Should be called once all items have been registered.
+     */
+    public void buildIndexes() {
+        for (ItemMapping mapping : this.items.values()) {
+            index(mapping);
+        }
+    }
+
+    /**
+     * Registers an item that is added after the indexes have been built.
+     *
+     * @param id the ID to register the item under
+     * @param mapping the item mapping
+     */
+    public void addMapping(int id, ItemMapping mapping) {
+        this.items.put(id, mapping);
+        index(mapping);
+    }
+
+    private void index(ItemMapping mapping) {
+        this.javaIdentifierIndex.putIfAbsent(mapping.getJavaIdentifier(), mapping);
+
+        if (this.javaOnlyItems.contains(mapping.getJavaIdentifier())) {
+            // From a Bedrock item data, we aren't getting one of these items
+            return;
+        }
+
+        int bedrockId = mapping.getBedrockId();
+        this.bedrockBlockIndex.putIfAbsent(bedrockKey(bedrockId, mapping.getBedrockBlockId()), mapping);
+        if (this.bedrockWildcardIndex.containsKey(bedrockId)) {
+            // An earlier mapping already matches every damage value
+            return;
+        }
+        if (matchesAnyDamage(mapping.getJavaIdentifier())) {
+            this.bedrockWildcardIndex.put(bedrockId, mapping);
+        } else {
+            this.bedrockDataIndex.putIfAbsent(bedrockKey(bedrockId, mapping.getBedrockData()), mapping);
+        }
+    }
+
+    /**
+     * Potions, tipped arrows, and firework stars are matched regardless of damage, as their damage values can vary.
+     */
+    private static boolean matchesAnyDamage(String javaIdentifier) {
+        return javaIdentifier.endsWith("potion") || javaIdentifier.equals("minecraft:arrow") || javaIdentifier.equals("minecraft:firework_star");
+    }
+
+    private static long bedrockKey(int bedrockId, int value) {
+        return ((long) bedrockId << 32) | (value & 0xFFFFFFFFL);
+    }
 }
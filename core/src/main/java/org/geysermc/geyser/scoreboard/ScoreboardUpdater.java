@@ -26,17 +26,22 @@
 package org.geysermc.geyser.scoreboard;
 
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import org.geysermc.geyser.GeyserImpl;
 import org.geysermc.geyser.configuration.GeyserConfiguration;
 import org.geysermc.geyser.session.GeyserSession;
-import org.geysermc.geyser.session.cache.WorldCache;
 import org.geysermc.geyser.text.GeyserLocale;
 
-import java.util.Collection;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
 
-public final class ScoreboardUpdater extends Thread {
+/**
+ * Throttles scoreboard updates for sessions that receive a lot of score and team packets.
+ * <p>
+ * Every session owns its own updater and all of its state is only touched from the session's
+ * event loop, so no extra thread or synchronization is needed. Below the first threshold
+ * the scoreboard is flushed straight away; above it a single flush is scheduled on the event loop,
+ * which sends every objective and score that changed since the last one.
+ */
+public final class ScoreboardUpdater {
     public static final int FIRST_SCORE_PACKETS_PER_SECOND_THRESHOLD;
     public static final int SECOND_SCORE_PACKETS_PER_SECOND_THRESHOLD = 250;
 
@@ -51,131 +56,84 @@ public final class ScoreboardUpdater extends Thread {
         DEBUG_ENABLED = config.isDebugMode();
     }
 
-    private final GeyserImpl geyser = GeyserImpl.getInstance();
+    private final GeyserSession session;
+
+    /**
+     * The amount of score packets received in the last full second
+     */
+    @Getter
+    private int packetsPerSecond;
+    private int pendingPacketsPerSecond;
+    private long packetsPerSecondStart = System.currentTimeMillis();
 
-    private long lastUpdate = System.currentTimeMillis();
-    private long lastPacketsPerSecondUpdate = System.currentTimeMillis();
+    private boolean updateScheduled;
+    private long lastUpdate;
+    private long lastLog;
 
-    public static void init() {
-        new ScoreboardUpdater().start();
+    public ScoreboardUpdater(GeyserSession session) {
+        this.session = session;
     }
 
-    @Override
-    public void run() {
-        while (!geyser.isShuttingDown()) {
-            try {
-                long timeTillAction = getTimeTillNextAction();
-                if (timeTillAction > 0) {
-                    sleepFor(timeTillAction);
-                    continue;
-                }
-
-                long currentTime = System.currentTimeMillis();
-
-                // reset score-packets per second every second
-                Collection<GeyserSession> sessions = geyser.getSessionManager().getSessions().values();
-                if (currentTime - lastPacketsPerSecondUpdate >= 1000) {
-                    lastPacketsPerSecondUpdate = currentTime;
-                    for (GeyserSession session : sessions) {
-                        ScoreboardSession scoreboardSession = session.getWorldCache().getScoreboardSession();
-
-                        int oldPps = scoreboardSession.getPacketsPerSecond();
-                        int newPps = scoreboardSession.getPendingPacketsPerSecond().get();
-
-                        scoreboardSession.packetsPerSecond = newPps;
-                        scoreboardSession.pendingPacketsPerSecond.set(0);
-
-                        // just making sure that all updates are pushed before giving up control
-                        if (oldPps >= FIRST_SCORE_PACKETS_PER_SECOND_THRESHOLD &&
-                                newPps < FIRST_SCORE_PACKETS_PER_SECOND_THRESHOLD) {
-                            session.getWorldCache().getScoreboard().onUpdate();
-                        }
-                    }
-                }
-
-                if (currentTime - lastUpdate >= FIRST_MILLIS_BETWEEN_UPDATES) {
-                    lastUpdate = currentTime;
-
-                    for (GeyserSession session : sessions) {
-                        WorldCache worldCache = session.getWorldCache();
-                        ScoreboardSession scoreboardSession = worldCache.getScoreboardSession();
-
-                        int pps = scoreboardSession.getPacketsPerSecond();
-                        if (pps >= FIRST_SCORE_PACKETS_PER_SECOND_THRESHOLD) {
-                            boolean reachedSecondThreshold = pps >= SECOND_SCORE_PACKETS_PER_SECOND_THRESHOLD;
-
-                            int millisBetweenUpdates = reachedSecondThreshold ?
-                                    SECOND_MILLIS_BETWEEN_UPDATES :
-                                    FIRST_MILLIS_BETWEEN_UPDATES;
-
-                            if (currentTime - scoreboardSession.lastUpdate >= millisBetweenUpdates) {
-                                worldCache.getScoreboard().onUpdate();
-                                scoreboardSession.lastUpdate = currentTime;
-
-                                if (DEBUG_ENABLED && (currentTime - scoreboardSession.lastLog >= 60000)) { // one minute
-                                    int threshold = reachedSecondThreshold ?
-                                            SECOND_SCORE_PACKETS_PER_SECOND_THRESHOLD :
-                                            FIRST_SCORE_PACKETS_PER_SECOND_THRESHOLD;
-
-                                    geyser.getLogger().info(
-                                            GeyserLocale.getLocaleStringLog("geyser.scoreboard.updater.threshold_reached.log", session.name(), threshold, pps) +
-                                                    GeyserLocale.getLocaleStringLog("geyser.scoreboard.updater.threshold_reached", (millisBetweenUpdates / 1000.0))
-                                    );
-
-                                    scoreboardSession.lastLog = currentTime;
-                                }
-                            }
-                        }
-                    }
-                }
-
-                if (DEBUG_ENABLED) {
-                    long timeSpent = System.currentTimeMillis() - currentTime;
-                    if (timeSpent > 0) {
-                        geyser.getLogger().info(String.format(
-                                "Scoreboard updater: took %s ms. Updated %s players",
-                                timeSpent, sessions.size()
-                        ));
-                    }
-                }
-
-                long timeTillNextAction = getTimeTillNextAction();
-                sleepFor(timeTillNextAction);
-            } catch (Throwable e) {
-                geyser.getLogger().error("Error while translating scoreboard information!", e);
-                // Wait so we don't try to run the scoreboard immediately after this
-                sleepFor(FIRST_MILLIS_BETWEEN_UPDATES);
-            }
+    /**
+     * Counts a score packet towards the packets per second of this session.
+     *
+     * @return the highest of the packets per second of the last second and the current one
+     */
+    public int increaseAndGetPacketsPerSecond() {
+        long currentTime = System.currentTimeMillis();
+        long elapsed = currentTime - packetsPerSecondStart;
+        if (elapsed >= 1000) {
+            // If a whole second passed without any packets, there's nothing to carry over
+            packetsPerSecond = elapsed >= 2000 ? 0 : pendingPacketsPerSecond;
+            pendingPacketsPerSecond = 0;
+            packetsPerSecondStart = currentTime;
         }
+        return Math.max(packetsPerSecond, ++pendingPacketsPerSecond);
     }
 
-    private long getTimeTillNextAction() {
-        long currentTime = System.currentTimeMillis();
+    /**
+     * Should be called after the scoreboard has been changed by a score packet.
+     *
+     * @param pps the packets per second returned by {@link #increaseAndGetPacketsPerSecond()}
+     */
+    public void update(int pps) {
+        if (pps < FIRST_SCORE_PACKETS_PER_SECOND_THRESHOLD && !updateScheduled) {
+            flush();
+            return;
+        }
 
-        long timeUntilNextUpdate = FIRST_MILLIS_BETWEEN_UPDATES - (currentTime - lastUpdate);
-        long timeUntilPacketReset = 1000 - (currentTime - lastPacketsPerSecondUpdate);
+        if (updateScheduled) {
+            return;
+        }
+
+        boolean reachedSecondThreshold = pps >= SECOND_SCORE_PACKETS_PER_SECOND_THRESHOLD;
+        int millisBetweenUpdates = reachedSecondThreshold ? SECOND_MILLIS_BETWEEN_UPDATES : FIRST_MILLIS_BETWEEN_UPDATES;
 
-        return Math.min(timeUntilNextUpdate, timeUntilPacketReset);
+        long currentTime = System.currentTimeMillis();
+        long delay = Math.max(0, lastUpdate + millisBetweenUpdates - currentTime);
+        updateScheduled = true;
+        session.scheduleInEventLoop(this::flush, delay, TimeUnit.MILLISECONDS);
+
+        if (DEBUG_ENABLED && (currentTime - lastLog >= 60000)) { // one minute
+            int threshold = reachedSecondThreshold ?
+                    SECOND_SCORE_PACKETS_PER_SECOND_THRESHOLD :
+                    FIRST_SCORE_PACKETS_PER_SECOND_THRESHOLD;
+
+            session.getGeyser().getLogger().info(
+                    GeyserLocale.getLocaleStringLog("geyser.scoreboard.updater.threshold_reached.log", session.name(), threshold, pps) +
+                            GeyserLocale.getLocaleStringLog("geyser.scoreboard.updater.threshold_reached", (millisBetweenUpdates / 1000.0))
+            );
+            lastLog = currentTime;
+        }
     }
 
-    private void sleepFor(long millis) {
-        if (millis <= 0) {
+    private void flush() {
+        updateScheduled = false;
+        if (session.isClosed()) {
             return;
         }
-        try {
-            Thread.sleep(millis);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
-    }
 
-    @RequiredArgsConstructor
-    @Getter
-    public static final class ScoreboardSession {
-        private final GeyserSession session;
-        private final AtomicInteger pendingPacketsPerSecond = new AtomicInteger(0);
-        private int packetsPerSecond;
-        private long lastUpdate;
-        private long lastLog;
+        lastUpdate = System.currentTimeMillis();
+        session.getWorldCache().getScoreboard().onUpdate();
     }
 }
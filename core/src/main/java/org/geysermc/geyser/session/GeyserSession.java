@@ -70,8 +70,6 @@ import com.nukkitx.protocol.bedrock.v471.Bedrock_v471;
 import io.netty.channel.Channel;
 import io.netty.channel.EventLoop;
 import it.unimi.dsi.fastutil.ints.*;
-import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import lombok.AccessLevel;
@@ -101,6 +99,7 @@ import org.geysermc.geyser.inventory.Inventory;
 import org.geysermc.geyser.inventory.PlayerInventory;
 import org.geysermc.geyser.inventory.recipe.GeyserRecipe;
 import org.geysermc.geyser.level.WorldManager;
+import org.geysermc.geyser.level.chunk.ChunkEncodingQueue;
 import org.geysermc.geyser.level.physics.CollisionManager;
 import org.geysermc.geyser.network.netty.LocalSession;
 import org.geysermc.geyser.registry.Registries;
@@ -157,11 +156,14 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
 
     private final AdvancementsCache advancementsCache;
     private final BookEditCache bookEditCache;
+    private final ChunkBlobCache chunkBlobCache;
     private final ChunkCache chunkCache;
+    private final ChunkEncodingQueue chunkEncodingQueue;
     private final EntityCache entityCache;
     private final EntityEffectCache effectCache;
     private final FormCache formCache;
     private final LodestoneCache lodestoneCache;
+    private final MapCache mapCache;
     private final PistonCache pistonCache;
     private final PreferencesCache preferencesCache;
     private final TagCache tagCache;
@@ -212,7 +214,6 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
     private ItemMappings itemMappings;
 
     private final Map<Vector3i, SkullPlayerEntity> skullCache = new Object2ObjectOpenHashMap<>();
-    private final Long2ObjectMap<ClientboundMapItemDataPacket> storedMaps = new Long2ObjectOpenHashMap<>();
 
     /**
      * Required to decode biomes correctly.
@@ -221,8 +222,10 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
     private int biomeGlobalPalette;
     /**
      * Stores the map between Java and Bedrock biome network IDs.
+     * Replaced rather than modified when the server sends new biomes, as chunks may be encoded on other threads.
      */
-    private final Int2IntMap biomeTranslations = new Int2IntOpenHashMap();
+    @Setter
+    private Int2IntMap biomeTranslations = new Int2IntOpenHashMap();
 
     /**
      * A map of Vector3i positions to Java entities.
@@ -514,11 +517,14 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
 
         this.advancementsCache = new AdvancementsCache(this);
         this.bookEditCache = new BookEditCache(this);
+        this.chunkBlobCache = new ChunkBlobCache(this);
         this.chunkCache = new ChunkCache(this);
+        this.chunkEncodingQueue = new ChunkEncodingQueue(this);
         this.entityCache = new EntityCache(this);
         this.effectCache = new EntityEffectCache();
         this.formCache = new FormCache(this);
         this.lodestoneCache = new LodestoneCache();
+        this.mapCache = new MapCache(this);
         this.pistonCache = new PistonCache(this);
         this.preferencesCache = new PreferencesCache(this);
         this.tagCache = new TagCache();
@@ -1036,6 +1042,11 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
             tickThread.cancel(false);
         }
 
+        if (!eventLoop.isShuttingDown()) {
+            // Free the chunk cache right away, as it may be holding off-heap memory
+            executeInEventLoop(chunkCache::clear);
+        }
+
         closed = true;
     }
 
@@ -1106,6 +1117,7 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
             for (Tickable entity : entityCache.getTickableEntities()) {
                 entity.tick();
             }
+            entityCache.flushPendingUpdates();
 
             if (armAnimationTicks != -1) {
                 // As of 1.18.2 Java Edition, it appears that the swing time is dynamically updated depending on the
@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2019-2022 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.session.cache;
+
+import com.nukkitx.protocol.bedrock.packet.ClientCacheMissResponsePacket;
+import com.nukkitx.protocol.bedrock.packet.LevelChunkPacket;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import lombok.Getter;
+import lombok.Setter;
+import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.util.MathUtils;
+import org.geysermc.geyser.util.XXHash64;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implements the server side of the Bedrock client blob cache.
+ * <p>
+ * When enabled, chunk sections and biome data are sent as blob hashes in the {@link LevelChunkPacket}.
+ * The client responds with the hashes it already has stored (acks) and the hashes it is missing (naks); only the
+ * missing blobs are then sent over the network.
+ * <p>
+ * Every chunk sent this way is kept until the client has answered for all of its blobs, as a missing blob means
+ * the chunk never loads. Chunks the client never answers for - as they were unloaded, replaced or the dimension
+ * changed - are dropped after a while. Should only be accessed on the session's event loop.
+ */
+public class ChunkBlobCache {
+    /**
+     * The most chunk data we hold onto while waiting for the client to answer. Chunks beyond this are sent
+     * without using the blob cache.
+     */
+    private static final int MAX_IN_FLIGHT_BYTES = 16 * 1024 * 1024;
+    /**
+     * How much data of answered chunks we keep, in case the client reports one of their blobs missing again.
+     */
+    private static final int MAX_ANSWERED_BYTES = 1024 * 1024;
+    /**
+     * How long we wait for the client to answer for a chunk before giving up on it.
+     */
+    private static final long ANSWER_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+    /**
+     * How often we look for chunks that have not been answered in time.
+     */
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final GeyserSession session;
+    private final boolean enabled;
+
+    /**
+     * Set if the client has indicated it supports the blob cache.
+     */
+    @Getter
+    @Setter
+    private boolean supported = false;
+
+    /**
+     * The chunks waiting for the client to answer, by chunk position.
+     */
+    private final Long2ObjectMap<InFlightChunk> inFlightChunks = new Long2ObjectOpenHashMap<>();
+    /**
+     * The chunks waiting for the client to answer for each blob hash, oldest first.
+     */
+    private final Long2ObjectMap<ArrayDeque<InFlightChunk>> pendingBlobs = new Long2ObjectOpenHashMap<>();
+    private int inFlightBytes;
+    private final ArrayDeque<InFlightChunk> answeredChunks = new ArrayDeque<>();
+    private int answeredBytes;
+    private long lastSweep = System.nanoTime();
+
+    public ChunkBlobCache(GeyserSession session) {
+        this.session = session;
+        this.enabled = session.getGeyser().getConfig().isUseClientBlobCache();
+    }
+
+    /**
+     * @return true if chunks should be sent to this client as blob hashes.
+     */
+    public boolean isEnabled() {
+        return enabled && supported;
+    }
+
+    /**
+     * Holds onto a chunk until the client has told us whether it needs each of its blobs. Replaces any chunk at
+     * the same position the client has not answered for yet.
+     *
+     * @param payload the chunk serialized without the blob cache
+     * @param blobOffsets the start index of each blob, then the index after the last blob
+     * @param blobHashes the hash of each blob, as computed by {@link XXHash64}
+     * @return false if too much data is already waiting for the client, and the chunk should be sent without the blob cache
+     */
+    public boolean trackChunk(int chunkX, int chunkZ, byte[] payload, int[] blobOffsets, long[] blobHashes) {
+        long now = System.nanoTime();
+        dropUnanswered(now);
+        removeChunk(chunkX, chunkZ);
+
+        if (inFlightBytes + payload.length > MAX_IN_FLIGHT_BYTES) {
+            return false;
+        }
+
+        // Sections may repeat within a chunk; wait for one answer per distinct blob
+        long[] distinctHashes = new LongOpenHashSet(blobHashes).toLongArray();
+        InFlightChunk chunk = new InFlightChunk(chunkX, chunkZ, payload, blobOffsets, blobHashes, distinctHashes, now);
+        for (long hash : distinctHashes) {
+            pendingBlobs.computeIfAbsent(hash, h -> new ArrayDeque<>()).add(chunk);
+        }
+        inFlightChunks.put(MathUtils.chunkPositionToLong(chunkX, chunkZ), chunk);
+        inFlightBytes += payload.length;
+        return true;
+    }
+
+    /**
+     * Stops waiting for the client to answer for the chunk at this position, if any.
+     */
+    public void removeChunk(int chunkX, int chunkZ) {
+        InFlightChunk chunk = inFlightChunks.remove(MathUtils.chunkPositionToLong(chunkX, chunkZ));
+        if (chunk != null) {
+            drop(chunk);
+        }
+    }
+
+    /**
+     * Forgets every chunk sent so far, for example when the client is switching dimensions.
+     */
+    public void clear() {
+        inFlightChunks.clear();
+        pendingBlobs.clear();
+        inFlightBytes = 0;
+        answeredChunks.clear();
+        answeredBytes = 0;
+    }
+
+    /**
+     * Handles the client's response to the blob hashes sent in a chunk packet, and sends any missing blobs.
+     *
+     * @param acks the blob hashes the client already has
+     * @param naks the blob hashes the client is missing
+     */
+    public void onBlobStatus(LongList acks, LongList naks) {
+        for (int i = 0; i < acks.size(); i++) {
+            answer(acks.getLong(i));
+        }
+
+        if (naks.isEmpty()) {
+            return;
+        }
+
+        ClientCacheMissResponsePacket missResponse = new ClientCacheMissResponsePacket();
+        for (int i = 0; i < naks.size(); i++) {
+            long hash = naks.getLong(i);
+            InFlightChunk chunk = answer(hash);
+            if (chunk == null) {
+                // The hash identifies the blob's content, so any chunk that had it will do
+                chunk = findAnsweredChunk(hash);
+            }
+
+            if (chunk != null) {
+                missResponse.getBlobs().put(hash, chunk.getBlob(hash));
+            } else {
+                session.getGeyser().getLogger().debug("Client requested unknown chunk blob " + Long.toHexString(hash));
+            }
+        }
+
+        if (!missResponse.getBlobs().isEmpty()) {
+            session.sendUpstreamPacket(missResponse);
+        }
+    }
+
+    /**
+     * Marks the oldest chunk waiting for this blob as answered.
+     *
+     * @return that chunk, or null if no chunk was waiting for this blob
+     */
+    private InFlightChunk answer(long hash) {
+        ArrayDeque<InFlightChunk> chunks = pendingBlobs.get(hash);
+        if (chunks == null) {
+            return null;
+        }
+        InFlightChunk chunk = chunks.poll();
+        if (chunks.isEmpty()) {
+            pendingBlobs.remove(hash);
+        }
+
+        if (--chunk.unanswered == 0) {
+            inFlightChunks.remove(MathUtils.chunkPositionToLong(chunk.chunkX, chunk.chunkZ));
+            inFlightBytes -= chunk.payload.length;
+            answeredChunks.add(chunk);
+            answeredBytes += chunk.payload.length;
+            while (answeredBytes > MAX_ANSWERED_BYTES) {
+                answeredBytes -= answeredChunks.poll().payload.length;
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Drops the chunks the client has not answered for in time.
+     */
+    private void dropUnanswered(long now) {
+        if (now - lastSweep < SWEEP_INTERVAL_NANOS) {
+            return;
+        }
+        lastSweep = now;
+
+        ObjectIterator<InFlightChunk> it = inFlightChunks.values().iterator();
+        while (it.hasNext()) {
+            InFlightChunk chunk = it.next();
+            if (now - chunk.sentAt >= ANSWER_TIMEOUT_NANOS) {
+                it.remove();
+                drop(chunk);
+            }
+        }
+    }
+
+    /**
+     * Removes a chunk that is no longer in {@link #inFlightChunks} from the blobs it is waiting on.
+     */
+    private void drop(InFlightChunk chunk) {
+        for (long hash : chunk.distinctHashes) {
+            ArrayDeque<InFlightChunk> chunks = pendingBlobs.get(hash);
+            if (chunks != null && chunks.remove(chunk) && chunks.isEmpty()) {
+                pendingBlobs.remove(hash);
+            }
+        }
+        inFlightBytes -= chunk.payload.length;
+    }
+
+    private InFlightChunk findAnsweredChunk(long hash) {
+        for (InFlightChunk chunk : answeredChunks) {
+            for (long blobHash : chunk.blobHashes) {
+                if (blobHash == hash) {
+                    return chunk;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static final class InFlightChunk {
+        private final int chunkX;
+        private final int chunkZ;
+        private final byte[] payload;
+        private final int[] blobOffsets;
+        private final long[] blobHashes;
+        private final long[] distinctHashes;
+        private final long sentAt;
+        /**
+         * How many distinct blobs of this chunk the client has not answered for yet.
+         */
+        private int unanswered;
+
+        private InFlightChunk(int chunkX, int chunkZ, byte[] payload, int[] blobOffsets, long[] blobHashes, long[] distinctHashes, long sentAt) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.payload = payload;
+            this.blobOffsets = blobOffsets;
+            this.blobHashes = blobHashes;
+            this.distinctHashes = distinctHashes;
+            this.sentAt = sentAt;
+            this.unanswered = distinctHashes.length;
+        }
+
+        private byte[] getBlob(long hash) {
+            for (int i = 0; i < blobHashes.length; i++) {
+                if (blobHashes[i] == hash) {
+                    return Arrays.copyOfRange(payload, blobOffsets[i], blobOffsets[i + 1]);
+                }
+            }
+            throw new IllegalStateException("Chunk does not contain blob " + Long.toHexString(hash));
+        }
+    }
+}
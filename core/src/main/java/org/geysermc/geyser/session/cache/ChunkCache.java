@@ -30,13 +30,19 @@ import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import lombok.Getter;
 import lombok.Setter;
+import org.geysermc.geyser.configuration.ChunkCacheStorageOption;
 import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.level.block.BlockStateValues;
+import org.geysermc.geyser.level.chunk.CompactChunk;
 import org.geysermc.geyser.level.chunk.GeyserChunk;
+import org.geysermc.geyser.level.chunk.SharedChunkStore;
 import org.geysermc.geyser.util.MathUtils;
 
 public class ChunkCache {
+    private final GeyserSession session;
     private final boolean cache;
+    @Getter
+    private final ChunkCacheStorageOption storage;
     private final Long2ObjectMap<GeyserChunk> chunks;
 
     @Setter
@@ -52,18 +58,38 @@ public class ChunkCache {
     private boolean isExtendedHeight = false;
 
     public ChunkCache(GeyserSession session) {
+        this.session = session;
         this.cache = !session.getGeyser().getWorldManager().hasOwnChunkCache(); // To prevent Spigot from initializing
         chunks = cache ? new Long2ObjectOpenHashMap<>() : null;
+        this.storage = session.getGeyser().getConfig().getChunkCacheStorage();
     }
 
-    public void addToCache(int x, int z, DataPalette[] chunks) {
+    /**
+     * @param rawData the chunk data from the Java packet
+     */
+    public void addToCache(int x, int z, DataPalette[] chunks, byte[] rawData) {
         if (!cache) {
             return;
         }
 
+        session.getCollisionManager().invalidateCollisionCache();
+
         long chunkPosition = MathUtils.chunkPositionToLong(x, z);
-        GeyserChunk geyserChunk = GeyserChunk.from(chunks);
-        this.chunks.put(chunkPosition, geyserChunk);
+        GeyserChunk geyserChunk;
+        if (SharedChunkStore.isEnabled()) {
+            // Other players may have been sent this exact chunk already
+            geyserChunk = SharedChunkStore.acquire(session, x, z, chunks, rawData, storage == ChunkCacheStorageOption.OFF_HEAP);
+        } else {
+            geyserChunk = switch (storage) {
+                case COMPACT -> CompactChunk.from(chunks, false);
+                case OFF_HEAP -> CompactChunk.from(chunks, true);
+                default -> GeyserChunk.from(chunks);
+            };
+        }
+        GeyserChunk previous = this.chunks.put(chunkPosition, geyserChunk);
+        if (previous != null) {
+            previous.release();
+        }
     }
 
     /**
@@ -79,31 +105,19 @@ public class ChunkCache {
             return;
         }
 
+        session.getCollisionManager().invalidateCollisionCache(x, y, z);
+
         GeyserChunk chunk = this.getChunk(x >> 4, z >> 4);
         if (chunk == null) {
             return;
         }
 
-        if (y < minY || ((y - minY) >> 4) > chunk.sections().length - 1) {
+        if (y < minY || ((y - minY) >> 4) > chunk.sectionCount() - 1) {
             // Y likely goes above or below the height limit of this world
             return;
         }
 
-        DataPalette palette = chunk.sections()[(y - minY) >> 4];
-        if (palette == null) {
-            if (block != BlockStateValues.JAVA_AIR_ID) {
-                // A previously empty chunk, which is no longer empty as a block has been added to it
-                palette = DataPalette.createForChunk();
-                // Fixes the chunk assuming that all blocks is the `block` variable we are updating. /shrug
-                palette.getPalette().stateToId(BlockStateValues.JAVA_AIR_ID);
-                chunk.sections()[(y - minY) >> 4] = palette;
-            } else {
-                // Nothing to update
-                return;
-            }
-        }
-
-        palette.set(x & 0xF, y & 0xF, z & 0xF, block);
+        chunk.set((y - minY) >> 4, x & 0xF, y & 0xF, z & 0xF, block);
     }
 
     public int getBlockAt(int x, int y, int z) {
@@ -116,17 +130,12 @@ public class ChunkCache {
             return BlockStateValues.JAVA_AIR_ID;
         }
 
-        if (y < minY || ((y - minY) >> 4) > column.sections().length - 1) {
+        if (y < minY || ((y - minY) >> 4) > column.sectionCount() - 1) {
             // Y likely goes above or below the height limit of this world
             return BlockStateValues.JAVA_AIR_ID;
         }
 
-        DataPalette chunk = column.sections()[(y - minY) >> 4];
-        if (chunk != null) {
-            return chunk.get(x & 0xF, y & 0xF, z & 0xF);
-        }
-
-        return BlockStateValues.JAVA_AIR_ID;
+        return column.get((y - minY) >> 4, x & 0xF, y & 0xF, z & 0xF);
     }
 
     public void removeChunk(int chunkX, int chunkZ) {
@@ -134,8 +143,13 @@ public class ChunkCache {
             return;
         }
 
+        session.getCollisionManager().invalidateCollisionCache();
+
         long chunkPosition = MathUtils.chunkPositionToLong(chunkX, chunkZ);
-        chunks.remove(chunkPosition);
+        GeyserChunk chunk = chunks.remove(chunkPosition);
+        if (chunk != null) {
+            chunk.release();
+        }
     }
 
     /**
@@ -144,13 +158,38 @@ public class ChunkCache {
      * but it is the client that must clear sections in the event of proxy switches.
      */
     public void clear() {
+        // The client won't answer for chunks it was sent before anymore
+        session.getChunkBlobCache().clear();
+
         if (!cache) {
             return;
         }
 
+        session.getCollisionManager().invalidateCollisionCache();
+
+        for (GeyserChunk chunk : chunks.values()) {
+            chunk.release();
+        }
         chunks.clear();
     }
 
+    /**
+     * @return an estimate of the memory used by the chunks in this cache
+     */
+    public MemoryUsage getMemoryUsage() {
+        if (!cache) {
+            return new MemoryUsage(0, 0, 0);
+        }
+
+        long heap = 0;
+        long offHeap = 0;
+        for (GeyserChunk chunk : chunks.values()) {
+            heap += chunk.heapUsage();
+            offHeap += chunk.offHeapUsage();
+        }
+        return new MemoryUsage(chunks.size(), heap, offHeap);
+    }
+
     public int getChunkMinY() {
         return minY >> 4;
     }
@@ -158,4 +197,12 @@ public class ChunkCache {
     public int getChunkHeightY() {
         return heightY >> 4;
     }
+
+    /**
+     * @param chunks the amount of cached chunks
+     * @param heapBytes the estimated heap usage of those chunks, in bytes
+     * @param offHeapBytes the off-heap memory used by those chunks, in bytes
+     */
+    public record MemoryUsage(int chunks, long heapBytes, long offHeapBytes) {
+    }
 }
@@ -32,6 +32,7 @@ import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import lombok.Getter;
+import org.geysermc.geyser.configuration.GeyserConfiguration;
 import org.geysermc.geyser.entity.type.Entity;
 import org.geysermc.geyser.entity.type.Tickable;
 import org.geysermc.geyser.entity.type.player.PlayerEntity;
@@ -56,12 +57,40 @@ public class EntityCache {
     private final Int2LongMap entityIdTranslations = new Int2LongOpenHashMap();
     private final Map<UUID, PlayerEntity> playerEntities = new Object2ObjectOpenHashMap<>();
     private final Map<UUID, BossBar> bossBars = new Object2ObjectOpenHashMap<>();
+    /**
+     * Entities with movement, metadata or motion that will be sent at the end of the tick.
+     */
+    private final ObjectArrayList<Entity> pendingUpdates = new ObjectArrayList<>();
+    /**
+     * If entity movement should be sent once per tick instead of once per Java packet.
+     */
+    @Getter
+    private final boolean coalesceMovement;
+    /**
+     * The squared distance after which entity updates are sent at a reduced rate, or 0 if disabled.
+     */
+    private final double lodDistanceSquared;
+    /**
+     * How many ticks entities further away than the LOD distance are updated in.
+     */
+    private final int lodUpdateInterval;
+    private int ticks;
+    /**
+     * The amount of entity updates that were merged into a later one because the entity was far away.
+     */
+    @Getter
+    private long suppressedUpdates;
 
     @Getter
     private final AtomicLong nextEntityId = new AtomicLong(2L);
 
     public EntityCache(GeyserSession session) {
         this.session = session;
+        GeyserConfiguration config = session.getGeyser().getConfig();
+        this.coalesceMovement = config.isCoalesceEntityMovement();
+        int lodDistance = Math.max(0, config.getEntityLodDistance());
+        this.lodDistanceSquared = (double) lodDistance * lodDistance;
+        this.lodUpdateInterval = Math.max(1, config.getEntityLodUpdateInterval());
     }
 
     public void spawnEntity(Entity entity) {
@@ -161,4 +190,48 @@ public class EntityCache {
     public List<Tickable> getTickableEntities() {
         return tickableEntities;
     }
+
+    public void queuePendingUpdate(Entity entity) {
+        pendingUpdates.add(entity);
+    }
+
+    /**
+     * @return true if updates for this entity should be sent at a reduced rate, because it's far away from the player
+     */
+    public boolean isThrottled(Entity entity) {
+        if (lodDistanceSquared == 0) {
+            return false;
+        }
+        PlayerEntity player = session.getPlayerEntity();
+        if (entity == player) {
+            return false;
+        }
+        return entity.getPosition().distanceSquared(player.getPosition()) > lodDistanceSquared;
+    }
+
+    public void countSuppressedUpdate() {
+        suppressedUpdates++;
+    }
+
+    /**
+     * Sends the pending updates of every entity. Updates of entities that are far away are held back
+     * until the next LOD update tick, unless the entity came close in the meantime.
+     */
+    public void flushPendingUpdates() {
+        boolean lodTick = ++ticks % lodUpdateInterval == 0;
+        if (pendingUpdates.isEmpty()) {
+            return;
+        }
+
+        int retained = 0;
+        for (int i = 0; i < pendingUpdates.size(); i++) {
+            Entity entity = pendingUpdates.get(i);
+            if (!lodTick && entity.isValid() && entity.hasPendingUpdates() && isThrottled(entity)) {
+                pendingUpdates.set(retained++, entity);
+                continue;
+            }
+            entity.flushPendingUpdates();
+        }
+        pendingUpdates.size(retained);
+    }
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2019-2022 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.session.cache;
+
+import com.nukkitx.protocol.bedrock.data.MapDecoration;
+import com.nukkitx.protocol.bedrock.data.MapTrackedObject;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import org.geysermc.geyser.level.map.MapCanvas;
+import org.geysermc.geyser.level.map.SharedMapStore;
+import org.geysermc.geyser.session.GeyserSession;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keeps the maps this session has been sent, as Bedrock requests the full map again with a MapInfoRequestPacket.
+ */
+@RequiredArgsConstructor
+public final class MapCache {
+    private final GeyserSession session;
+    private final Long2ObjectMap<StoredMap> maps = new Long2ObjectOpenHashMap<>();
+
+    public StoredMap getOrCreate(long mapId) {
+        return maps.computeIfAbsent(mapId, id -> new StoredMap(SharedMapStore.acquire(session, id)));
+    }
+
+    @Nullable
+    public StoredMap get(long mapId) {
+        return maps.get(mapId);
+    }
+
+    @Getter
+    @Setter
+    public static final class StoredMap {
+        private final MapCanvas canvas;
+        /**
+         * What the client shows of the canvas, see {@link MapCanvas}
+         */
+        private final MapCanvas.ClientView clientView = new MapCanvas.ClientView();
+        private byte scale;
+        private boolean locked;
+        private List<MapTrackedObject> trackedObjects = Collections.emptyList();
+        private List<MapDecoration> decorations = Collections.emptyList();
+
+        private StoredMap(MapCanvas canvas) {
+            this.canvas = canvas;
+        }
+    }
+}
@@ -30,12 +30,12 @@ import lombok.Getter;
 import lombok.Setter;
 import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.scoreboard.Scoreboard;
-import org.geysermc.geyser.scoreboard.ScoreboardUpdater.ScoreboardSession;
+import org.geysermc.geyser.scoreboard.ScoreboardUpdater;
 
 @Getter
 public class WorldCache {
     private final GeyserSession session;
-    private final ScoreboardSession scoreboardSession;
+    private final ScoreboardUpdater scoreboardUpdater;
     private Scoreboard scoreboard;
     @Setter
     private Difficulty difficulty = Difficulty.EASY;
@@ -43,7 +43,7 @@ public class WorldCache {
     public WorldCache(GeyserSession session) {
         this.session = session;
         this.scoreboard = new Scoreboard(session);
-        scoreboardSession = new ScoreboardSession(session);
+        scoreboardUpdater = new ScoreboardUpdater(session);
     }
 
     public void removeScoreboard() {
@@ -54,8 +54,13 @@ public class WorldCache {
     }
 
     public int increaseAndGetScoreboardPacketsPerSecond() {
-        int pendingPps = scoreboardSession.getPendingPacketsPerSecond().incrementAndGet();
-        int pps = scoreboardSession.getPacketsPerSecond();
-        return Math.max(pps, pendingPps);
+        return scoreboardUpdater.increaseAndGetPacketsPerSecond();
+    }
+
+    /**
+     * Sends the scoreboard changes to the client, either directly or throttled depending on the packets per second.
+     */
+    public void updateScoreboard(int pps) {
+        scoreboardUpdater.update(pps);
     }
 }
\ No newline at end of file
@@ -0,0 +1,362 @@
+/*
+ * Copyright (c) 2019-2022 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.skin;
+
+import org.geysermc.geyser.GeyserImpl;
+import org.geysermc.geyser.util.XXHash64;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+
+/**
+ * A persistent store of skin and cape images that have already been converted to Bedrock image data.
+ * Images are keyed by the hash of their texture, so a returning player's skin is read straight from
+ * disk without going through the network or ImageIO again.
+ *
+ * An index of every stored image is kept in memory in least-recently-used order, and saved to disk
+ * so that it survives restarts. Images missing from the index are deleted when the cache is loaded.
+ */
+public final class ImageCache {
+    private static final int INDEX_VERSION = 1;
+    private static final String INDEX_FILE = "index.bin";
+    private static final String EXTENSION = ".rgba";
+    /**
+     * Mojang texture URLs end with the SHA-256 of the image itself.
+     */
+    private static final Pattern TEXTURE_HASH = Pattern.compile("[0-9a-f]{32,64}");
+
+    private final Path directory;
+    private final long maxSize;
+    private final long expireTime;
+    /**
+     * Access-ordered, so iteration starts with the least recently used image.
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalSize;
+    private boolean dirty;
+
+    private ImageCache(Path directory, long maxSize, long expireTime) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.expireTime = expireTime;
+    }
+
+    /**
+     * Opens the image cache in the given folder, reading the index from a previous run if there is one.
+     *
+     * @param directory the folder to store images in
+     * @param maxSize the maximum amount of bytes to store before the least recently used images are removed
+     * @param expireTime how long in milliseconds an image can go unused before it is removed
+     */
+    public static ImageCache load(Path directory, long maxSize, long expireTime) throws IOException {
+        Files.createDirectories(directory);
+        ImageCache cache = new ImageCache(directory, maxSize, expireTime);
+
+        // Images used to be stored as PNGs, which would all have to be converted again.
+        // Temporary files are left behind if we were stopped while writing.
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.{png,tmp}")) {
+            for (Path file : stream) {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        Path indexFile = directory.resolve(INDEX_FILE);
+        if (Files.exists(indexFile)) {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+                if (input.readInt() == INDEX_VERSION) {
+                    int count = input.readInt();
+                    for (int i = 0; i < count; i++) {
+                        String key = input.readUTF();
+                        Entry entry = new Entry(input.readInt(), input.readLong());
+                        cache.entries.put(key, entry);
+                        cache.totalSize += entry.size;
+                    }
+                }
+            } catch (IOException e) {
+                // Images that are no longer indexed are deleted below
+                GeyserImpl.getInstance().getLogger().debug("Could not read the image cache index: " + e.getMessage());
+                cache.entries.clear();
+                cache.totalSize = 0;
+            }
+        }
+
+        // Images written after the index was last saved would otherwise never count towards the size limit
+        Set<String> stored = new HashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                String key = name.substring(0, name.length() - EXTENSION.length());
+                if (cache.entries.containsKey(key)) {
+                    stored.add(key);
+                } else {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        // And indexed images may have been deleted before the index was saved again
+        Iterator<Map.Entry<String, Entry>> it = cache.entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Entry> entry = it.next();
+            if (!stored.contains(entry.getKey())) {
+                cache.totalSize -= entry.getValue().size;
+                it.remove();
+                cache.dirty = true;
+            }
+        }
+
+        cache.evict();
+        return cache;
+    }
+
+    /**
+     * @param url the URL of the texture
+     * @param cape whether the texture is a cape, as capes and skins are converted differently
+     * @return the key the converted image is stored under
+     */
+    public static String keyFor(String url, boolean cape) {
+        String hash = url.substring(url.lastIndexOf('/') + 1);
+        if (!url.contains("textures.minecraft.net/texture/") || !TEXTURE_HASH.matcher(hash).matches()) {
+            hash = Long.toHexString(XXHash64.hash(url.getBytes(StandardCharsets.UTF_8)));
+        }
+        return (cape ? "cape-" : "skin-") + hash;
+    }
+
+    /**
+     * Reads an image without blocking the calling thread.
+     *
+     * @return a future completing with the image data, or null if the image is not stored
+     */
+    public CompletableFuture<byte[]> read(String key) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            entry.lastUsed = System.currentTimeMillis();
+            dirty = true;
+        }
+
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        try {
+            AsynchronousFileChannel channel = AsynchronousFileChannel.open(fileFor(key), StandardOpenOption.READ);
+            readFully(channel, ByteBuffer.allocate(entry.size), future);
+        } catch (IOException e) {
+            future.completeExceptionally(e);
+        }
+
+        return future.exceptionally(throwable -> {
+            GeyserImpl.getInstance().getLogger().debug("Could not read cached image " + key + ": " + throwable.getMessage());
+            remove(key);
+            return null;
+        });
+    }
+
+    /**
+     * Stores converted image data. This blocks on disk I/O, so it should only be called off the main threads.
+     */
+    public void write(String key, byte[] data) {
+        Path file = fileFor(key);
+        try {
+            Path temporary = Files.createTempFile(directory, key, ".tmp");
+            Files.write(temporary, data);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            GeyserImpl.getInstance().getLogger().error("Failed to write cached image " + file + ": " + e.getMessage());
+            return;
+        }
+
+        synchronized (this) {
+            Entry previous = entries.put(key, new Entry(data.length, System.currentTimeMillis()));
+            if (previous != null) {
+                totalSize -= previous.size;
+            }
+            totalSize += data.length;
+            dirty = true;
+        }
+        evict();
+    }
+
+    /**
+     * Removes all images that have not been used within the expiry time.
+     *
+     * @return the amount of images removed
+     */
+    public int expire() {
+        long expireBefore = System.currentTimeMillis() - expireTime;
+        List<String> expired = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Entry> entry = it.next();
+                if (entry.getValue().lastUsed < expireBefore) {
+                    totalSize -= entry.getValue().size;
+                    it.remove();
+                    expired.add(entry.getKey());
+                }
+            }
+            if (!expired.isEmpty()) {
+                dirty = true;
+            }
+        }
+        deleteFiles(expired);
+        return expired.size();
+    }
+
+    /**
+     * Writes the index to disk if any image has been used or changed since it was last saved.
+     */
+    public void save() {
+        byte[] index;
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(entries.size() * 32 + 8);
+            try (DataOutputStream output = new DataOutputStream(bytes)) {
+                output.writeInt(INDEX_VERSION);
+                output.writeInt(entries.size());
+                for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    output.writeUTF(entry.getKey());
+                    output.writeInt(entry.getValue().size);
+                    output.writeLong(entry.getValue().lastUsed);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // Not possible with an in-memory stream
+            }
+            index = bytes.toByteArray();
+            dirty = false;
+        }
+
+        try {
+            Path temporary = Files.createTempFile(directory, INDEX_FILE, ".tmp");
+            Files.write(temporary, index);
+            Files.move(temporary, directory.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            GeyserImpl.getInstance().getLogger().error("Failed to save the image cache index: " + e.getMessage());
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long totalSize() {
+        return totalSize;
+    }
+
+    private void remove(String key) {
+        synchronized (this) {
+            Entry entry = entries.remove(key);
+            if (entry == null) {
+                return;
+            }
+            totalSize -= entry.size;
+            dirty = true;
+        }
+        deleteFiles(Collections.singletonList(key));
+    }
+
+    private void evict() {
+        List<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+            while (totalSize > maxSize && it.hasNext()) {
+                Map.Entry<String, Entry> entry = it.next();
+                totalSize -= entry.getValue().size;
+                it.remove();
+                evicted.add(entry.getKey());
+            }
+            if (!evicted.isEmpty()) {
+                dirty = true;
+            }
+        }
+        deleteFiles(evicted);
+    }
+
+    private void deleteFiles(List<String> keys) {
+        for (String key : keys) {
+            try {
+                Files.deleteIfExists(fileFor(key));
+            } catch (IOException e) {
+                GeyserImpl.getInstance().getLogger().debug("Could not delete cached image " + key + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private Path fileFor(String key) {
+        return directory.resolve(key + EXTENSION);
+    }
+
+    private static void readFully(AsynchronousFileChannel channel, ByteBuffer buffer, CompletableFuture<byte[]> future) {
+        channel.read(buffer, buffer.position(), null, new CompletionHandler<Integer, Void>() {
+            @Override
+            public void completed(Integer read, Void attachment) {
+                if (read >= 0 && buffer.hasRemaining()) {
+                    channel.read(buffer, buffer.position(), null, this);
+                    return;
+                }
+
+                close(channel);
+                if (buffer.hasRemaining()) {
+                    future.completeExceptionally(new EOFException("Image is smaller than indexed"));
+                } else {
+                    future.complete(buffer.array());
+                }
+            }
+
+            @Override
+            public void failed(Throwable throwable, Void attachment) {
+                close(channel);
+                future.completeExceptionally(throwable);
+            }
+        });
+    }
+
+    private static void close(AsynchronousFileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static final class Entry {
+        private final int size;
+        private long lastUsed;
+
+        private Entry(int size, long lastUsed) {
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
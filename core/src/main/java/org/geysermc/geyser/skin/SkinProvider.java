@@ -48,7 +48,6 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.File;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URL;
@@ -83,6 +82,10 @@ public class SkinProvider {
     private static final Map<String, CompletableFuture<Cape>> requestedCapes = new ConcurrentHashMap<>();
 
     private static final Map<UUID, SkinGeometry> cachedGeometry = new ConcurrentHashMap<>();
+    /**
+     * Converted images stored on disk, or null if image caching is disabled.
+     */
+    private static volatile ImageCache imageCache;
 
     /**
      * Citizens NPCs use UUID version 2, while legitimate Minecraft players use version 4, and
@@ -120,26 +123,44 @@ public class SkinProvider {
     public static void registerCacheImageTask(GeyserImpl geyser) {
         // Schedule Daily Image Expiry if we are caching them
         if (geyser.getConfig().getCacheImages() > 0) {
-            geyser.getScheduledThread().scheduleAtFixedRate(() -> {
-                File cacheFolder = GeyserImpl.getInstance().getBootstrap().getConfigFolder().resolve("cache").resolve("images").toFile();
-                if (!cacheFolder.exists()) {
-                    return;
-                }
-
-                int count = 0;
-                final long expireTime = ((long) GeyserImpl.getInstance().getConfig().getCacheImages()) * ((long)1000 * 60 * 60 * 24);
-                for (File imageFile : Objects.requireNonNull(cacheFolder.listFiles())) {
-                    if (imageFile.lastModified() < System.currentTimeMillis() - expireTime) {
-                        //noinspection ResultOfMethodCallIgnored
-                        imageFile.delete();
-                        count++;
-                    }
-                }
+            final long expireTime = ((long) geyser.getConfig().getCacheImages()) * ((long)1000 * 60 * 60 * 24);
+            final long maxSize = ((long) geyser.getConfig().getCacheImagesMaxSize()) * 1024 * 1024;
+            ImageCache cache;
+            try {
+                cache = ImageCache.load(geyser.getBootstrap().getConfigFolder().resolve("cache").resolve("images"), maxSize, expireTime);
+            } catch (IOException e) {
+                geyser.getLogger().error("Failed to load the image cache; images will not be cached", e);
+                return;
+            }
+            imageCache = cache;
 
+            geyser.getScheduledThread().scheduleAtFixedRate(() -> {
+                int count = cache.expire();
                 if (count > 0) {
-                    GeyserImpl.getInstance().getLogger().debug(String.format("Removed %d cached image files as they have expired", count));
+                    geyser.getLogger().debug(String.format("Removed %d cached image files as they have expired", count));
                 }
+                cache.save();
             }, 10, 1440, TimeUnit.MINUTES);
+            // Keep the index mostly up to date in case we aren't shut down cleanly
+            geyser.getScheduledThread().scheduleAtFixedRate(cache::save, 5, 5, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * @return the image cache, or null if image caching is disabled
+     */
+    public static ImageCache getImageCache() {
+        return imageCache;
+    }
+
+    /**
+     * Saves the image cache index so the cached images can be used after a restart.
+     */
+    public static void saveImageCache() {
+        ImageCache cache = imageCache;
+        if (cache != null) {
+            imageCache = null;
+            cache.save();
         }
     }
 
@@ -258,7 +279,7 @@ public class SkinProvider {
 
         CompletableFuture<Skin> future;
         if (newThread) {
-            future = CompletableFuture.supplyAsync(() -> supplySkin(playerId, textureUrl), EXECUTOR_SERVICE)
+            future = supplySkin(playerId, textureUrl, EXECUTOR_SERVICE)
                     .whenCompleteAsync((skin, throwable) -> {
                         skin.updated = true;
                         cachedSkins.put(textureUrl, skin);
@@ -266,7 +287,7 @@ public class SkinProvider {
                     });
             requestedSkins.put(textureUrl, future);
         } else {
-            Skin skin = supplySkin(playerId, textureUrl);
+            Skin skin = supplySkin(playerId, textureUrl, Runnable::run).join();
             future = CompletableFuture.completedFuture(skin);
             cachedSkins.put(textureUrl, skin);
         }
@@ -284,14 +305,14 @@ public class SkinProvider {
 
         CompletableFuture<Cape> future;
         if (newThread) {
-            future = CompletableFuture.supplyAsync(() -> supplyCape(capeUrl, provider), EXECUTOR_SERVICE)
+            future = supplyCape(capeUrl, provider, EXECUTOR_SERVICE)
                     .whenCompleteAsync((cape, throwable) -> {
                         cachedCapes.put(capeUrl, cape);
                         requestedCapes.remove(capeUrl);
                     });
             requestedCapes.put(capeUrl, future);
         } else {
-            Cape cape = supplyCape(capeUrl, provider); // blocking
+            Cape cape = supplyCape(capeUrl, provider, Runnable::run).join(); // blocking
             future = CompletableFuture.completedFuture(cape);
             cachedCapes.put(capeUrl, cape);
         }
@@ -406,31 +427,30 @@ public class SkinProvider {
         cachedGeometry.put(playerID, SkinGeometry.getEars(isSlim));
     }
 
-    private static Skin supplySkin(UUID uuid, String textureUrl) {
-        try {
-            byte[] skin = requestImage(textureUrl, null);
-            return new Skin(uuid, textureUrl, skin, System.currentTimeMillis(), false, false);
-        } catch (Exception ignored) {} // just ignore I guess
-
-        return new Skin(uuid, "empty", EMPTY_SKIN.getSkinData(), System.currentTimeMillis(), false, false);
+    private static CompletableFuture<Skin> supplySkin(UUID uuid, String textureUrl, Executor executor) {
+        return requestImage(textureUrl, null, executor).handle((skin, throwable) -> {
+            if (skin != null) {
+                return new Skin(uuid, textureUrl, skin, System.currentTimeMillis(), false, false);
+            }
+            // just ignore I guess
+            return new Skin(uuid, "empty", EMPTY_SKIN.getSkinData(), System.currentTimeMillis(), false, false);
+        });
     }
 
-    private static Cape supplyCape(String capeUrl, CapeProvider provider) {
-        byte[] cape = EMPTY_CAPE.getCapeData();
-        try {
-            cape = requestImage(capeUrl, provider);
-        } catch (Exception ignored) {
-        } // just ignore I guess
+    private static CompletableFuture<Cape> supplyCape(String capeUrl, CapeProvider provider, Executor executor) {
+        return requestImage(capeUrl, provider, executor).handle((data, throwable) -> {
+            byte[] cape = data != null ? data : EMPTY_CAPE.getCapeData(); // just ignore I guess
 
-        String[] urlSection = capeUrl.split("/"); // A real url is expected at this stage
+            String[] urlSection = capeUrl.split("/"); // A real url is expected at this stage
 
-        return new Cape(
-                capeUrl,
-                urlSection[urlSection.length - 1], // get the texture id and use it as cape id
-                cape,
-                System.currentTimeMillis(),
-                cape.length == 0
-        );
+            return new Cape(
+                    capeUrl,
+                    urlSection[urlSection.length - 1], // get the texture id and use it as cape id
+                    cape,
+                    System.currentTimeMillis(),
+                    cape.length == 0
+            );
+        });
     }
 
     /**
@@ -474,36 +494,41 @@ public class SkinProvider {
         return existingSkin;
     }
 
-    @SuppressWarnings("ResultOfMethodCallIgnored")
-    private static byte[] requestImage(String imageUrl, CapeProvider provider) throws Exception {
-        BufferedImage image = null;
-
-        // First see if we have a cached file. We also update the modification stamp so we know when the file was last used
-        File imageFile = GeyserImpl.getInstance().getBootstrap().getConfigFolder().resolve("cache").resolve("images").resolve(UUID.nameUUIDFromBytes(imageUrl.getBytes()).toString() + ".png").toFile();
-        if (imageFile.exists()) {
-            try {
-                GeyserImpl.getInstance().getLogger().debug("Reading cached image from file " + imageFile.getPath() + " for " + imageUrl);
-                imageFile.setLastModified(System.currentTimeMillis());
-                image = ImageIO.read(imageFile);
-            } catch (IOException ignored) {}
+    /**
+     * Gets the Bedrock image data for a skin or cape, reading it from the image cache if possible.
+     *
+     * @param executor the executor to download and convert the image on if it isn't cached
+     */
+    private static CompletableFuture<byte[]> requestImage(String imageUrl, CapeProvider provider, Executor executor) {
+        ImageCache cache = imageCache;
+        if (cache == null) {
+            return CompletableFuture.supplyAsync(() -> downloadImageData(imageUrl, provider), executor);
         }
 
-        // If no image we download it
-        if (image == null) {
-            image = downloadImage(imageUrl, provider);
-            GeyserImpl.getInstance().getLogger().debug("Downloaded " + imageUrl);
-
-            // Write to cache if we are allowed
-            if (GeyserImpl.getInstance().getConfig().getCacheImages() > 0) {
-                imageFile.getParentFile().mkdirs();
-                try {
-                    ImageIO.write(image, "png", imageFile);
-                    GeyserImpl.getInstance().getLogger().debug("Writing cached skin to file " + imageFile.getPath() + " for " + imageUrl);
-                } catch (IOException e) {
-                    GeyserImpl.getInstance().getLogger().error("Failed to write cached skin to file " + imageFile.getPath() + " for " + imageUrl);
-                }
+        String key = ImageCache.keyFor(imageUrl, provider != null);
+        return cache.read(key).thenCompose(data -> {
+            if (data != null) {
+                GeyserImpl.getInstance().getLogger().debug("Read cached image " + key + " for " + imageUrl);
+                return CompletableFuture.completedFuture(data);
             }
+
+            return CompletableFuture.supplyAsync(() -> {
+                byte[] downloaded = downloadImageData(imageUrl, provider);
+                cache.write(key, downloaded);
+                return downloaded;
+            }, executor);
+        });
+    }
+
+    private static byte[] downloadImageData(String imageUrl, CapeProvider provider) {
+        BufferedImage image;
+        try {
+            image = downloadImage(imageUrl, provider);
+        } catch (IOException e) {
+            throw new CompletionException(e);
         }
+        if (image == null) throw new NullPointerException();
+        GeyserImpl.getInstance().getLogger().debug("Downloaded " + imageUrl);
 
         // if the requested image is a cape
         if (provider != null) {
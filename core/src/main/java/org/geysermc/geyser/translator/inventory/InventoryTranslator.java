@@ -149,6 +149,9 @@ public abstract class InventoryTranslator {
     }
 
     public final void translateRequests(GeyserSession session, Inventory inventory, List<ItemStackRequest> requests) {
+        // The client moves items itself, so it no longer necessarily shows what we last sent
+        inventory.setSentItems(null);
+
         boolean refresh = false;
         ItemStackResponsePacket responsePacket = new ItemStackResponsePacket();
         for (ItemStackRequest request : requests) {
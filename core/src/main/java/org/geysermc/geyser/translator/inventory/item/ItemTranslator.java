@@ -140,6 +140,16 @@ public abstract class ItemTranslator {
             return ItemData.AIR;
         }
 
+        TranslatedItemCache.ItemKey cacheKey = null;
+        if (TranslatedItemCache.isEnabled()) {
+            cacheKey = TranslatedItemCache.ItemKey.from(session, stack);
+            ItemData cached = TranslatedItemCache.get(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        boolean sessionSpecific = false;
+
         CompoundTag nbt = stack.getNbt() != null ? stack.getNbt().clone() : null;
 
         // This is a fallback for maps with no nbt
@@ -152,6 +162,7 @@ public abstract class ItemTranslator {
             for (NbtItemStackTranslator translator : NBT_TRANSLATORS) {
                 if (translator.acceptItem(bedrockItem)) {
                     translator.translateToBedrock(session, nbt, bedrockItem);
+                    sessionSpecific |= translator.isSessionSpecific();
                 }
             }
         }
@@ -183,7 +194,11 @@ public abstract class ItemTranslator {
             builder.canPlace(canPlace);
         }
 
-        return builder.build();
+        ItemData itemData = builder.build();
+        if (cacheKey != null && !sessionSpecific) {
+            TranslatedItemCache.put(cacheKey, itemData);
+        }
+        return itemData;
     }
 
     private static CompoundTag addAdvancedTooltips(CompoundTag nbt, ItemMapping mapping, String language) {
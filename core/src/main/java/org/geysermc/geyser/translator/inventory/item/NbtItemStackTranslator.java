@@ -60,4 +60,14 @@ public class NbtItemStackTranslator {
         return true;
     }
 
+    /**
+     * Gets whether the translated NBT depends on the session beyond its locale, such as on state stored in the
+     * session. Items processed by such a translator are never shared between sessions.
+     *
+     * @return if the translation is specific to the session
+     */
+    public boolean isSessionSpecific() {
+        return false;
+    }
+
 }
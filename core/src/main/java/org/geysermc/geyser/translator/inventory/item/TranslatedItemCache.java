@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2019-2022 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.translator.inventory.item;
+
+import com.github.steveice10.mc.protocol.data.game.entity.metadata.ItemStack;
+import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
+import com.github.steveice10.opennbt.tag.builtin.ListTag;
+import com.github.steveice10.opennbt.tag.builtin.Tag;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.nukkitx.protocol.bedrock.data.inventory.ItemData;
+import org.geysermc.geyser.GeyserImpl;
+import org.geysermc.geyser.session.GeyserSession;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A cache of translated Bedrock items, shared across all sessions.
+ * <p>
+ * Servers with menus made of items send the same items to every player, often many times over. Only items whose
+ * translation depends on nothing but the item itself, the player's locale and their advanced tooltips setting are
+ * cached; see {@link NbtItemStackTranslator#isSessionSpecific()}.
+ */
+public final class TranslatedItemCache {
+    private static final Cache<ItemKey, ItemData> CACHE;
+
+    static {
+        int maxItems = GeyserImpl.getInstance().getConfig().getTranslatedItemCacheSize();
+        if (maxItems > 0) {
+            CACHE = CacheBuilder.newBuilder()
+                    .maximumSize(maxItems)
+                    .recordStats()
+                    .build();
+        } else {
+            CACHE = null;
+        }
+    }
+
+    public static boolean isEnabled() {
+        return CACHE != null;
+    }
+
+    /**
+     * @return a copy of the cached item, as callers set the net ID of the slot the item is sent to
+     */
+    @Nullable
+    public static ItemData get(ItemKey key) {
+        ItemData itemData = CACHE.getIfPresent(key);
+        return itemData != null ? itemData.toBuilder().build() : null;
+    }
+
+    /**
+     * @param key a key from {@link ItemKey#from(GeyserSession, ItemStack)}. Its NBT is copied, as the item
+     *            stack it came from may be changed later.
+     * @param itemData the translated item. A copy is stored, so the caller may still change it.
+     */
+    public static void put(ItemKey key, ItemData itemData) {
+        CACHE.put(key.copy(), itemData.toBuilder().build());
+    }
+
+    /**
+     * @return the hit/miss statistics of the cache, or null if the cache is disabled
+     */
+    @Nullable
+    public static CacheStats stats() {
+        return CACHE != null ? CACHE.stats() : null;
+    }
+
+    public static long size() {
+        return CACHE != null ? CACHE.size() : 0;
+    }
+
+    /**
+     * Identifies a Java item stack, and everything about the session that its translation depends on.
+     */
+    public static final class ItemKey {
+        private final int protocolVersion;
+        private final int javaId;
+        private final int amount;
+        @Nullable
+        private final CompoundTag nbt;
+        private final String locale;
+        private final boolean advancedTooltips;
+        private final int hashCode;
+
+        private ItemKey(int protocolVersion, int javaId, int amount, @Nullable CompoundTag nbt, String locale, boolean advancedTooltips, int hashCode) {
+            this.protocolVersion = protocolVersion;
+            this.javaId = javaId;
+            this.amount = amount;
+            this.nbt = nbt;
+            this.locale = locale;
+            this.advancedTooltips = advancedTooltips;
+            this.hashCode = hashCode;
+        }
+
+        public static ItemKey from(GeyserSession session, ItemStack stack) {
+            int protocolVersion = session.getUpstream().getProtocolVersion();
+            String locale = session.locale();
+            boolean advancedTooltips = session.isAdvancedTooltips();
+
+            int hash = protocolVersion;
+            hash = 31 * hash + stack.getId();
+            hash = 31 * hash + stack.getAmount();
+            hash = 31 * hash + (stack.getNbt() != null ? hashTag(stack.getNbt()) : 0);
+            hash = 31 * hash + Objects.hashCode(locale);
+            hash = 31 * hash + Boolean.hashCode(advancedTooltips);
+            return new ItemKey(protocolVersion, stack.getId(), stack.getAmount(), stack.getNbt(), locale, advancedTooltips, hash);
+        }
+
+        private ItemKey copy() {
+            return new ItemKey(protocolVersion, javaId, amount, nbt != null ? nbt.clone() : null, locale, advancedTooltips, hashCode);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ItemKey other)) {
+                return false;
+            }
+            return hashCode == other.hashCode && protocolVersion == other.protocolVersion && javaId == other.javaId
+                    && amount == other.amount && advancedTooltips == other.advancedTooltips
+                    && Objects.equals(locale, other.locale) && Objects.equals(nbt, other.nbt);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Hashes a tag by its contents. Compound tags are hashed without regard to the order of their children,
+     * matching how they are compared.
+     */
+    private static int hashTag(Tag tag) {
+        int hash = tag.getName().hashCode();
+        if (tag instanceof CompoundTag compoundTag) {
+            int children = 0;
+            for (Tag child : compoundTag.getValue().values()) {
+                children += hashTag(child);
+            }
+            return 31 * hash + children;
+        }
+        if (tag instanceof ListTag listTag) {
+            for (Tag child : listTag.getValue()) {
+                hash = 31 * hash + hashTag(child);
+            }
+            return hash;
+        }
+
+        Object value = tag.getValue();
+        if (value instanceof byte[] bytes) {
+            return 31 * hash + Arrays.hashCode(bytes);
+        }
+        if (value instanceof int[] ints) {
+            return 31 * hash + Arrays.hashCode(ints);
+        }
+        if (value instanceof long[] longs) {
+            return 31 * hash + Arrays.hashCode(longs);
+        }
+        return 31 * hash + Objects.hashCode(value);
+    }
+
+    private TranslatedItemCache() {
+    }
+}
@@ -52,4 +52,10 @@ public class LodestoneCompassTranslator extends NbtItemStackTranslator {
     public boolean acceptItem(ItemMapping mapping) {
         return mapping.getJavaIdentifier().equals("minecraft:compass");
     }
+
+    @Override
+    public boolean isSessionSpecific() {
+        // The tracking handle comes from the session's lodestone cache
+        return true;
+    }
 }
@@ -32,12 +32,12 @@ import com.github.steveice10.mc.protocol.data.game.chunk.palette.Palette;
 import com.github.steveice10.mc.protocol.data.game.chunk.palette.SingletonPalette;
 import com.github.steveice10.opennbt.tag.builtin.*;
 import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntList;
 import it.unimi.dsi.fastutil.ints.IntLists;
 import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.level.chunk.BlockStorage;
-import org.geysermc.geyser.level.chunk.GeyserChunkSection;
 import org.geysermc.geyser.level.chunk.bitarray.BitArray;
 import org.geysermc.geyser.level.chunk.bitarray.BitArrayVersion;
 import org.geysermc.geyser.level.chunk.bitarray.SingletonBitArray;
@@ -48,8 +48,8 @@ import org.geysermc.geyser.util.MathUtils;
 public class BiomeTranslator {
 
     public static void loadServerBiomes(GeyserSession session, CompoundTag codec) {
-        Int2IntMap biomeTranslations = session.getBiomeTranslations();
-        biomeTranslations.clear();
+        // A new map is created, as the previous one may still be in use by chunks being encoded
+        Int2IntMap biomeTranslations = new Int2IntOpenHashMap();
 
         CompoundTag worldGen = codec.get("minecraft:worldgen/biome");
         ListTag serverBiomes = worldGen.get("value");
@@ -85,10 +85,14 @@ public class BiomeTranslator {
                 biomeTranslations.defaultReturnValue(bedrockId);
             }
         }
+        session.setBiomeTranslations(biomeTranslations);
     }
 
     public static BlockStorage toNewBedrockBiome(GeyserSession session, DataPalette biomeData) {
-        Int2IntMap biomeTranslations = session.getBiomeTranslations();
+        return toNewBedrockBiome(session.getBiomeTranslations(), biomeData);
+    }
+
+    public static BlockStorage toNewBedrockBiome(Int2IntMap biomeTranslations, DataPalette biomeData) {
         // As of 1.17.10: the client expects the same format as a chunk but filled with biomes
         // As of 1.18 this is the same as Java Edition
 
@@ -113,46 +117,42 @@ public class BiomeTranslator {
                 }
 
                 // Each section of biome corresponding to a chunk section contains 4 * 4 * 4 entries
+                int[] cells = new int[64];
                 for (int i = 0; i < 64; i++) {
-                    int idx = bitStorage.get(i);
-                    int x = i & 3;
-                    int y = (i >> 4) & 3;
-                    int z = (i >> 2) & 3;
-                    // Convert biome coordinates into block coordinates
-                    // Bedrock expects a full 4096 blocks
-                    multiplyIdToStorage(bitArray, idx, x, y, z);
+                    cells[i] = bitStorage.get(i);
                 }
+                expandToStorage(bitArray, cells);
 
                 storage = new BlockStorage(bitArray, bedrockPalette);
             } else {
                 storage = new BlockStorage(0);
-                BitArray bitArray = storage.getBitArray();
 
                 // Each section of biome corresponding to a chunk section contains 4 * 4 * 4 entries
+                int[] cells = new int[64];
                 for (int i = 0; i < 64; i++) {
                     int javaId = biomeData.getPalette().idToState(biomeData.getStorage().get(i));
-                    int x = i & 3;
-                    int y = (i >> 4) & 3;
-                    int z = (i >> 2) & 3;
                     // Get the Bedrock biome ID override
                     int biomeId = biomeTranslations.get(javaId);
-                    int idx = storage.idFor(biomeId);
-                    // Convert biome coordinates into block coordinates
-                    // Bedrock expects a full 4096 blocks
-                    multiplyIdToStorage(bitArray, idx, x, y, z);
+                    cells[i] = storage.idFor(biomeId);
                 }
+                // Only fetch the bit array now, as idFor may have resized it
+                expandToStorage(storage.getBitArray(), cells);
             }
             return storage;
         }
     }
 
-    private static void multiplyIdToStorage(BitArray bitArray, int idx, int x, int y, int z) {
-        for (int blockX = x << 2; blockX < (x << 2) + 4; blockX++) {
-            for (int blockZ = z << 2; blockZ < (z << 2) + 4; blockZ++) {
-                for (int blockY = y << 2; blockY < (y << 2) + 4; blockY++) {
-                    bitArray.set(GeyserChunkSection.blockPosition(blockX, blockY, blockZ), idx);
-                }
-            }
+    /**
+     * Converts biome coordinates into block coordinates, as Bedrock expects a full 4096 blocks.
+     * The entries are generated in XZY order so they can be packed into the bit array in one pass.
+     *
+     * @param cells the 64 biome cells of the section, in Java's YZX order
+     */
+    private static void expandToStorage(BitArray bitArray, int[] cells) {
+        int[] data = new int[BlockStorage.SIZE];
+        for (int xzy = 0; xzy < BlockStorage.SIZE; xzy++) {
+            data[xzy] = cells[((xzy & 0xC) << 2) | ((xzy >> 4) & 0xC) | (xzy >> 10)];
         }
+        bitArray.setAll(data);
     }
 }
@@ -27,9 +27,12 @@ package org.geysermc.geyser.translator.protocol.bedrock;
 
 import com.nukkitx.protocol.bedrock.packet.ClientboundMapItemDataPacket;
 import com.nukkitx.protocol.bedrock.packet.MapInfoRequestPacket;
+import org.geysermc.geyser.level.map.MapCanvas;
 import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.session.cache.MapCache;
 import org.geysermc.geyser.translator.protocol.PacketTranslator;
 import org.geysermc.geyser.translator.protocol.Translator;
+import org.geysermc.geyser.util.DimensionUtils;
 
 import java.util.concurrent.TimeUnit;
 
@@ -40,11 +43,31 @@ public class BedrockMapInfoRequestTranslator extends PacketTranslator<MapInfoReq
     public void translate(GeyserSession session, MapInfoRequestPacket packet) {
         long mapId = packet.getUniqueMapId();
 
-        ClientboundMapItemDataPacket mapPacket = session.getStoredMaps().remove(mapId);
-        if (mapPacket != null) {
-            // Delay the packet 100ms to prevent the client from ignoring the packet
-            session.scheduleInEventLoop(() -> session.sendUpstreamPacket(mapPacket),
-                    100, TimeUnit.MILLISECONDS);
+        MapCache.StoredMap storedMap = session.getMapCache().get(mapId);
+        if (storedMap == null) {
+            return;
         }
+
+        // Only ever what this session was sent, as maps may be rendered differently for each player
+        int[] colors = storedMap.getClientView().toARGB();
+        if (colors == null) {
+            // We haven't been sent the full map yet
+            return;
+        }
+
+        ClientboundMapItemDataPacket mapPacket = new ClientboundMapItemDataPacket();
+        mapPacket.setUniqueMapId(mapId);
+        mapPacket.setDimensionId(DimensionUtils.javaToBedrock(session.getDimension()));
+        mapPacket.setLocked(storedMap.isLocked());
+        mapPacket.setScale(storedMap.getScale());
+        mapPacket.setWidth(MapCanvas.SIZE);
+        mapPacket.setHeight(MapCanvas.SIZE);
+        mapPacket.setColors(colors);
+        mapPacket.getTrackedObjects().addAll(storedMap.getTrackedObjects());
+        mapPacket.getDecorations().addAll(storedMap.getDecorations());
+
+        // Delay the packet 100ms to prevent the client from ignoring the packet
+        session.scheduleInEventLoop(() -> session.sendUpstreamPacket(mapPacket),
+                100, TimeUnit.MILLISECONDS);
     }
 }
@@ -30,6 +30,9 @@ import com.github.steveice10.mc.protocol.data.game.command.CommandParser;
 import com.github.steveice10.mc.protocol.data.game.command.properties.ResourceProperties;
 import com.github.steveice10.mc.protocol.data.game.entity.attribute.AttributeType;
 import com.github.steveice10.mc.protocol.packet.ingame.clientbound.ClientboundCommandsPacket;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.nukkitx.protocol.bedrock.data.command.CommandData;
 import com.nukkitx.protocol.bedrock.data.command.CommandEnumData;
 import com.nukkitx.protocol.bedrock.data.command.CommandParam;
@@ -45,6 +48,7 @@ import lombok.Getter;
 import lombok.ToString;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.geysermc.geyser.GeyserImpl;
+import org.geysermc.geyser.api.event.EventBus;
 import org.geysermc.geyser.api.event.downstream.ServerDefineCommandsEvent;
 import org.geysermc.geyser.command.GeyserCommandManager;
 import org.geysermc.geyser.session.GeyserSession;
@@ -92,6 +96,15 @@ public class JavaCommandsTranslator extends PacketTranslator<ClientboundCommands
         }
     };
 
+    /**
+     * Servers resend the whole command tree on every permission or world change, and players with the same
+     * permissions receive the same tree. Keyed by the structure of the tree and the Bedrock protocol version.
+     */
+    private static final Cache<CommandsKey, TranslatedCommands> CACHE = CacheBuilder.newBuilder()
+            .maximumSize(64)
+            .recordStats()
+            .build();
+
     static {
         List<String> validColors = new ArrayList<>(NamedTextColor.NAMES.keys());
         validColors.add("reset");
@@ -116,9 +129,57 @@ public class JavaCommandsTranslator extends PacketTranslator<ClientboundCommands
             return;
         }
 
+        CommandsKey key = CommandsKey.from(session, packet);
+        TranslatedCommands translated = CACHE.getIfPresent(key);
+        if (translated == null) {
+            long startTime = System.nanoTime();
+            translated = translateCommands(session, packet);
+            CACHE.put(key, translated);
+
+            if (session.getGeyser().getConfig().isDebugMode()) {
+                CacheStats stats = CACHE.stats();
+                session.getGeyser().getLogger().debug(String.format("Translated %d commands in %.2fms (command cache hit rate %.1f%%)",
+                        translated.commandData().size(), (System.nanoTime() - startTime) / 1_000_000d, stats.hitRate() * 100));
+            }
+        }
+
+        List<CommandData> commandData = translated.commandData();
+        EventBus eventBus = session.getGeyser().eventBus();
+        if (eventBus.hasSubscriptions(ServerDefineCommandsEvent.class)) {
+            // Subscribers may remove commands, so they get their own copy of the shared translation
+            Map<BedrockCommandInfo, Set<String>> commands = new Object2ObjectOpenCustomHashMap<>(translated.commands(), PARAM_STRATEGY);
+            ServerDefineCommandsEvent event = new ServerDefineCommandsEvent(session, commands.keySet());
+            eventBus.fire(event);
+            if (event.isCancelled()) {
+                return;
+            }
+
+            if (commands.size() != translated.commands().size()) {
+                commandData = buildCommandData(commands);
+            }
+        }
+
+        // Add our commands to the AvailableCommandsPacket for the bedrock client
+        AvailableCommandsPacket availableCommandsPacket = new AvailableCommandsPacket();
+        availableCommandsPacket.getCommands().addAll(commandData);
+
+        session.getGeyser().getLogger().debug("Sending command packet of " + commandData.size() + " commands");
+
+        // Finally, send the commands to the client
+        session.sendUpstreamPacket(availableCommandsPacket);
+    }
+
+    public static CacheStats cacheStats() {
+        return CACHE.stats();
+    }
+
+    public static long cacheSize() {
+        return CACHE.size();
+    }
+
+    private static TranslatedCommands translateCommands(GeyserSession session, ClientboundCommandsPacket packet) {
         GeyserCommandManager manager = session.getGeyser().commandManager();
         CommandNode[] nodes = packet.getNodes();
-        List<CommandData> commandData = new ArrayList<>();
         IntSet commandNodes = new IntOpenHashSet();
         Set<String> knownAliases = new HashSet<>();
         Map<BedrockCommandInfo, Set<String>> commands = new Object2ObjectOpenCustomHashMap<>(PARAM_STRATEGY);
@@ -149,11 +210,11 @@ public class JavaCommandsTranslator extends PacketTranslator<ClientboundCommands
                     index -> new HashSet<>()).add(node.getName().toLowerCase());
         }
 
-        ServerDefineCommandsEvent event = new ServerDefineCommandsEvent(session, commands.keySet());
-        session.getGeyser().eventBus().fire(event);
-        if (event.isCancelled()) {
-            return;
-        }
+        return new TranslatedCommands(commands, buildCommandData(commands));
+    }
+
+    private static List<CommandData> buildCommandData(Map<BedrockCommandInfo, Set<String>> commands) {
+        List<CommandData> commandData = new ArrayList<>(commands.size());
 
         // The command flags, not sure what these do apart from break things
         List<CommandData.Flag> flags = Collections.emptyList();
@@ -169,15 +230,7 @@ public class JavaCommandsTranslator extends PacketTranslator<ClientboundCommands
             CommandData data = new CommandData(commandName, entry.getKey().description(), flags, (byte) 0, aliases, entry.getKey().paramData());
             commandData.add(data);
         }
-
-        // Add our commands to the AvailableCommandsPacket for the bedrock client
-        AvailableCommandsPacket availableCommandsPacket = new AvailableCommandsPacket();
-        availableCommandsPacket.getCommands().addAll(commandData);
-
-        session.getGeyser().getLogger().debug("Sending command packet of " + commandData.size() + " commands");
-
-        // Finally, send the commands to the client
-        session.sendUpstreamPacket(availableCommandsPacket);
+        return Collections.unmodifiableList(commandData);
     }
 
     /**
@@ -257,6 +310,48 @@ public class JavaCommandsTranslator extends PacketTranslator<ClientboundCommands
     private static record BedrockCommandInfo(String name, String description, CommandParamData[][] paramData) implements ServerDefineCommandsEvent.CommandInfo {
     }
 
+    /**
+     * The translated commands shared between every session that received the same command tree.
+     */
+    private record TranslatedCommands(Map<BedrockCommandInfo, Set<String>> commands, List<CommandData> commandData) {
+    }
+
+    /**
+     * Everything the translated commands depend on. Item names differ between Bedrock versions; the hash only
+     * covers the shape of the tree, while the nodes themselves are still compared in full.
+     */
+    private record CommandsKey(int protocolVersion, int firstNodeIndex, List<CommandNode> nodes, int hashCode) {
+        static CommandsKey from(GeyserSession session, ClientboundCommandsPacket packet) {
+            int protocolVersion = session.getUpstream().getProtocolVersion();
+            int hash = 31 * protocolVersion + packet.getFirstNodeIndex();
+            for (CommandNode node : packet.getNodes()) {
+                hash = 31 * hash + Objects.hashCode(node.getName());
+                hash = 31 * hash + Objects.hashCode(node.getParser());
+                hash = 31 * hash + Arrays.hashCode(node.getChildIndices());
+                hash = 31 * hash + node.getRedirectIndex();
+                hash = 31 * hash + Boolean.hashCode(node.isExecutable());
+            }
+            return new CommandsKey(protocolVersion, packet.getFirstNodeIndex(), Arrays.asList(packet.getNodes()), hash);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CommandsKey other)) {
+                return false;
+            }
+            return hashCode == other.hashCode && protocolVersion == other.protocolVersion
+                    && firstNodeIndex == other.firstNodeIndex && nodes.equals(other.nodes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
     @Getter
     @ToString
     private static class ParamInfo {
@@ -34,6 +34,9 @@ import com.github.steveice10.mc.protocol.data.game.recipe.data.ShapelessRecipeDa
 import com.github.steveice10.mc.protocol.data.game.recipe.data.SmithingRecipeData;
 import com.github.steveice10.mc.protocol.data.game.recipe.data.StoneCuttingRecipeData;
 import com.github.steveice10.mc.protocol.packet.ingame.clientbound.ClientboundUpdateRecipesPacket;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.nukkitx.nbt.NbtMap;
 import com.nukkitx.protocol.bedrock.data.inventory.CraftingData;
 import com.nukkitx.protocol.bedrock.data.inventory.ItemData;
@@ -75,8 +78,45 @@ public class JavaUpdateRecipesTranslator extends PacketTranslator<ClientboundUpd
             CraftingData.fromMulti(UUID.fromString("602234e4-cac1-4353-8bb7-b1ebff70024b"), ++LAST_RECIPE_NET_ID) // Map locking
     );
 
+    /**
+     * Recipes translated for one recipe set, protocol version and language. Most servers send every player the same
+     * recipes, so they only have to be translated once per login wave.
+     */
+    private static final Cache<RecipesKey, TranslatedRecipes> CACHE = CacheBuilder.newBuilder()
+            .maximumSize(16)
+            .recordStats()
+            .build();
+
     @Override
     public void translate(GeyserSession session, ClientboundUpdateRecipesPacket packet) {
+        RecipesKey key = RecipesKey.from(session, packet.getRecipes());
+        TranslatedRecipes recipes = CACHE.getIfPresent(key);
+        if (recipes == null) {
+            recipes = translateRecipes(session, packet.getRecipes());
+            CACHE.put(key, recipes);
+        }
+
+        CraftingDataPacket craftingDataPacket = new CraftingDataPacket();
+        craftingDataPacket.setCleanRecipes(true);
+        craftingDataPacket.getCraftingData().addAll(recipes.craftingData());
+        craftingDataPacket.getPotionMixData().addAll(Registries.POTION_MIXES.get());
+
+        session.sendUpstreamPacket(craftingDataPacket);
+        // The crafting recipes can be added to later on, so every session needs its own copy
+        session.setCraftingRecipes(new Int2ObjectOpenHashMap<>(recipes.craftingRecipes()));
+        session.setStonecutterRecipes(recipes.stonecutterRecipes());
+        session.getLastRecipeNetId().set(recipes.lastNetId());
+    }
+
+    public static CacheStats cacheStats() {
+        return CACHE.stats();
+    }
+
+    public static long cacheSize() {
+        return CACHE.size();
+    }
+
+    private TranslatedRecipes translateRecipes(GeyserSession session, Recipe[] javaRecipes) {
         Map<RecipeType, List<CraftingData>> recipeTypes = Registries.CRAFTING_DATA.forVersion(session.getUpstream().getProtocolVersion());
         // Get the last known network ID (first used for the pregenerated recipes) and increment from there.
         int netId = InventoryUtils.LAST_RECIPE_NET_ID + 1;
@@ -85,9 +125,8 @@ public class JavaUpdateRecipesTranslator extends PacketTranslator<ClientboundUpd
 
         Int2ObjectMap<GeyserRecipe> recipeMap = new Int2ObjectOpenHashMap<>(Registries.RECIPES.forVersion(session.getUpstream().getProtocolVersion()));
         Int2ObjectMap<List<StoneCuttingRecipeData>> unsortedStonecutterData = new Int2ObjectOpenHashMap<>();
-        CraftingDataPacket craftingDataPacket = new CraftingDataPacket();
-        craftingDataPacket.setCleanRecipes(true);
-        for (Recipe recipe : packet.getRecipes()) {
+        List<CraftingData> craftingData = new ArrayList<>();
+        for (Recipe recipe : javaRecipes) {
             switch (recipe.getType()) {
                 case CRAFTING_SHAPELESS -> {
                     ShapelessRecipeData shapelessRecipeData = (ShapelessRecipeData) recipe.getData();
@@ -101,7 +140,7 @@ public class JavaUpdateRecipesTranslator extends PacketTranslator<ClientboundUpd
                     ItemData[][] inputCombinations = combinations(session, shapelessRecipeData.getIngredients());
                     for (ItemData[] inputs : inputCombinations) {
                         UUID uuid = UUID.randomUUID();
-                        craftingDataPacket.getCraftingData().add(CraftingData.fromShapeless(uuid.toString(),
+                        craftingData.add(CraftingData.fromShapeless(uuid.toString(),
                                 Arrays.asList(inputs), Collections.singletonList(output), uuid, "crafting_table", 0, netId));
                         recipeMap.put(netId++, new GeyserShapelessRecipe(shapelessRecipeData));
                     }
@@ -118,7 +157,7 @@ public class JavaUpdateRecipesTranslator extends PacketTranslator<ClientboundUpd
                     ItemData[][] inputCombinations = combinations(session, shapedRecipeData.getIngredients());
                     for (ItemData[] inputs : inputCombinations) {
                         UUID uuid = UUID.randomUUID();
-                        craftingDataPacket.getCraftingData().add(CraftingData.fromShaped(uuid.toString(),
+                        craftingData.add(CraftingData.fromShaped(uuid.toString(),
                                 shapedRecipeData.getWidth(), shapedRecipeData.getHeight(), Arrays.asList(inputs),
                                 Collections.singletonList(output), uuid, "crafting_table", 0, netId));
                         recipeMap.put(netId++, new GeyserShapedRecipe(shapedRecipeData));
@@ -150,22 +189,21 @@ public class JavaUpdateRecipesTranslator extends PacketTranslator<ClientboundUpd
                             ItemData bedrockAddition = ItemTranslator.translateToBedrock(session, addition);
 
                             UUID uuid = UUID.randomUUID();
-                            craftingDataPacket.getCraftingData().add(CraftingData.fromShapeless(uuid.toString(),
+                            craftingData.add(CraftingData.fromShapeless(uuid.toString(),
                                     Arrays.asList(bedrockBase, bedrockAddition),
                                     Collections.singletonList(output), uuid, "smithing_table", 2, netId++));
                         }
                     }
                 }
                 default -> {
-                    List<CraftingData> craftingData = recipeTypes.get(recipe.getType());
-                    if (craftingData != null) {
-                        craftingDataPacket.getCraftingData().addAll(craftingData);
+                    List<CraftingData> pregeneratedData = recipeTypes.get(recipe.getType());
+                    if (pregeneratedData != null) {
+                        craftingData.addAll(pregeneratedData);
                     }
                 }
             }
         }
-        craftingDataPacket.getCraftingData().addAll(CARTOGRAPHY_RECIPES);
-        craftingDataPacket.getPotionMixData().addAll(Registries.POTION_MIXES.get());
+        craftingData.addAll(CARTOGRAPHY_RECIPES);
 
         Int2ObjectMap<IntList> stonecutterRecipeMap = new Int2ObjectOpenHashMap<>();
         for (Int2ObjectMap.Entry<List<StoneCuttingRecipeData>> data : unsortedStonecutterData.int2ObjectEntrySet()) {
@@ -189,7 +227,7 @@ public class JavaUpdateRecipesTranslator extends PacketTranslator<ClientboundUpd
                 UUID uuid = UUID.randomUUID();
 
                 // We need to register stonecutting recipes so they show up on Bedrock
-                craftingDataPacket.getCraftingData().add(CraftingData.fromShapeless(uuid.toString(),
+                craftingData.add(CraftingData.fromShapeless(uuid.toString(),
                         Collections.singletonList(input), Collections.singletonList(output), uuid, "stonecutter", 0, netId++));
 
                 // Save the recipe list for reference when crafting
@@ -199,10 +237,7 @@ public class JavaUpdateRecipesTranslator extends PacketTranslator<ClientboundUpd
             }
         }
 
-        session.sendUpstreamPacket(craftingDataPacket);
-        session.setCraftingRecipes(recipeMap);
-        session.setStonecutterRecipes(stonecutterRecipeMap);
-        session.getLastRecipeNetId().set(netId);
+        return new TranslatedRecipes(Collections.unmodifiableList(craftingData), recipeMap, stonecutterRecipeMap, netId);
     }
 
     //TODO: rewrite
@@ -286,6 +321,52 @@ public class JavaUpdateRecipesTranslator extends PacketTranslator<ClientboundUpd
         return combinations;
     }
 
+    /**
+     * @param craftingRecipes shared between sessions - must be copied before being modified
+     * @param stonecutterRecipes shared between sessions and only ever read
+     */
+    private record TranslatedRecipes(List<CraftingData> craftingData, Int2ObjectMap<GeyserRecipe> craftingRecipes,
+                                     Int2ObjectMap<IntList> stonecutterRecipes, int lastNetId) {
+    }
+
+    /**
+     * Everything the translated recipes depend on. Items are translated per language, and only the identifiers of
+     * the recipes are hashed as item tags don't hash by their contents; the recipes themselves are still compared in full.
+     */
+    private record RecipesKey(int protocolVersion, String locale, boolean advancedTooltips, List<Recipe> recipes, int hashCode) {
+        static RecipesKey from(GeyserSession session, Recipe[] recipes) {
+            int protocolVersion = session.getUpstream().getProtocolVersion();
+            String locale = session.locale();
+            boolean advancedTooltips = session.isAdvancedTooltips();
+
+            int hash = protocolVersion;
+            hash = 31 * hash + Objects.hashCode(locale);
+            hash = 31 * hash + Boolean.hashCode(advancedTooltips);
+            for (Recipe recipe : recipes) {
+                hash = 31 * hash + Objects.hashCode(recipe.getIdentifier());
+            }
+            return new RecipesKey(protocolVersion, locale, advancedTooltips, Arrays.asList(recipes), hash);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RecipesKey other)) {
+                return false;
+            }
+            return hashCode == other.hashCode && protocolVersion == other.protocolVersion
+                    && advancedTooltips == other.advancedTooltips && Objects.equals(locale, other.locale)
+                    && recipes.equals(other.recipes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
     @EqualsAndHashCode
     @AllArgsConstructor
     private static class GroupedItem {
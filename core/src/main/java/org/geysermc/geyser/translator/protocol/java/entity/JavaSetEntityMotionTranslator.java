@@ -34,7 +34,6 @@ import org.geysermc.geyser.translator.protocol.Translator;
 
 import com.github.steveice10.mc.protocol.packet.ingame.clientbound.entity.ClientboundSetEntityMotionPacket;
 import com.nukkitx.math.vector.Vector3f;
-import com.nukkitx.protocol.bedrock.packet.SetEntityMotionPacket;
 
 @Translator(packet = ClientboundSetEntityMotionPacket.class)
 public class JavaSetEntityMotionTranslator extends PacketTranslator<ClientboundSetEntityMotionPacket> {
@@ -58,10 +57,6 @@ public class JavaSetEntityMotionTranslator extends PacketTranslator<ClientboundS
             return;
         }
 
-        SetEntityMotionPacket entityMotionPacket = new SetEntityMotionPacket();
-        entityMotionPacket.setRuntimeEntityId(entity.getGeyserId());
-        entityMotionPacket.setMotion(entity.getMotion());
-
-        session.sendUpstreamPacket(entityMotionPacket);
+        entity.updateBedrockMotion();
     }
 }
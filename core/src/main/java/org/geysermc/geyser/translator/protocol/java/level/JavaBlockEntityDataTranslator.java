@@ -46,6 +46,12 @@ public class JavaBlockEntityDataTranslator extends PacketTranslator<ClientboundB
 
     @Override
     public void translate(GeyserSession session, ClientboundBlockEntityDataPacket packet) {
+        // The client drops block entity data for a chunk it hasn't received yet
+        Position position = packet.getPosition();
+        session.getChunkEncodingQueue().runOrdered(position.getX() >> 4, position.getZ() >> 4, () -> translateBlockEntity(session, packet));
+    }
+
+    private void translateBlockEntity(GeyserSession session, ClientboundBlockEntityDataPacket packet) {
         final BlockEntityType type = packet.getType();
         if (type == null) {
             return;
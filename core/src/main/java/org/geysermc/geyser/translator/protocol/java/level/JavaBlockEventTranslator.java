@@ -49,6 +49,12 @@ public class JavaBlockEventTranslator extends PacketTranslator<ClientboundBlockE
 
     @Override
     public void translate(GeyserSession session, ClientboundBlockEventPacket packet) {
+        // The client ignores block events for a chunk it hasn't received yet
+        session.getChunkEncodingQueue().runOrdered(packet.getPosition().getX() >> 4, packet.getPosition().getZ() >> 4,
+                () -> translateBlockEvent(session, packet));
+    }
+
+    private void translateBlockEvent(GeyserSession session, ClientboundBlockEventPacket packet) {
         BlockEventPacket blockEventPacket = new BlockEventPacket();
         blockEventPacket.setBlockPosition(Vector3i.from(packet.getPosition().getX(),
                 packet.getPosition().getY(), packet.getPosition().getZ()));
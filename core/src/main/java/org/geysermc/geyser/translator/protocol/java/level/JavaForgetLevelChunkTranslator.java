@@ -39,7 +39,10 @@ public class JavaForgetLevelChunkTranslator extends PacketTranslator<Clientbound
 
     @Override
     public void translate(GeyserSession session, ClientboundForgetLevelChunkPacket packet) {
+        // If this chunk is still being encoded, it no longer needs to be sent
+        session.getChunkEncodingQueue().cancel(packet.getX(), packet.getZ());
         session.getChunkCache().removeChunk(packet.getX(), packet.getZ());
+        session.getChunkBlobCache().removeChunk(packet.getX(), packet.getZ());
 
         //Checks if a skull is in an unloaded chunk then removes it
         Iterator<Vector3i> iterator = session.getSkullCache().keySet().iterator();
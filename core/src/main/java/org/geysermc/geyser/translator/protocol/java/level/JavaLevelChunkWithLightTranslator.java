@@ -47,30 +47,35 @@ import com.nukkitx.protocol.bedrock.v475.Bedrock_v475;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.ByteBufOutputStream;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntList;
 import it.unimi.dsi.fastutil.ints.IntLists;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import org.geysermc.geyser.entity.type.ItemFrameEntity;
 import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.session.cache.ChunkBlobCache;
 import org.geysermc.geyser.translator.protocol.PacketTranslator;
 import org.geysermc.geyser.translator.protocol.Translator;
 import org.geysermc.geyser.translator.level.BiomeTranslator;
+import org.geysermc.geyser.level.block.BlockStateFlags;
 import org.geysermc.geyser.level.block.BlockStateValues;
 import org.geysermc.geyser.translator.level.block.entity.BedrockOnlyBlockEntity;
 import org.geysermc.geyser.translator.level.block.entity.BlockEntityTranslator;
 import org.geysermc.geyser.translator.level.block.entity.SkullBlockEntityTranslator;
 import org.geysermc.geyser.level.chunk.BlockStorage;
 import org.geysermc.geyser.level.chunk.GeyserChunkSection;
+import org.geysermc.geyser.level.chunk.TranslatedSectionCache;
 import org.geysermc.geyser.level.chunk.bitarray.BitArray;
 import org.geysermc.geyser.level.chunk.bitarray.BitArrayVersion;
 import org.geysermc.geyser.level.chunk.bitarray.SingletonBitArray;
-import org.geysermc.geyser.registry.BlockRegistries;
 import org.geysermc.geyser.util.BlockEntityUtils;
 import org.geysermc.geyser.util.ChunkUtils;
+import org.geysermc.geyser.util.XXHash64;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 
 import static org.geysermc.geyser.util.ChunkUtils.*;
@@ -89,29 +94,97 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
         int chunkSize = session.getChunkCache().getChunkHeightY();
         int biomeGlobalPalette = session.getBiomeGlobalPalette();
 
+        ChunkSection[] javaSections = new ChunkSection[chunkSize];
         DataPalette[] javaChunks = new DataPalette[chunkSize];
-        DataPalette[] javaBiomes = new DataPalette[chunkSize];
 
         final BlockEntityInfo[] blockEntities = packet.getBlockEntities();
         final List<NbtMap> bedrockBlockEntities = new ObjectArrayList<>(blockEntities.length);
 
+        try {
+            NetInput in = new StreamNetInput(new ByteArrayInputStream(packet.getChunkData()));
+            for (int sectionY = 0; sectionY < chunkSize; sectionY++) {
+                ChunkSection javaSection = ChunkSection.read(in, biomeGlobalPalette);
+                javaSections[sectionY] = javaSection;
+                javaChunks[sectionY] = javaSection.getChunkData();
+            }
+        } catch (IOException e) {
+            session.getGeyser().getLogger().error("IO error while encoding chunk", e);
+            return;
+        }
+
+        // The chunk cache must be up-to-date before any further packets are handled.
+        // Block updates for this chunk are held back until it has been encoded, so the sections can be safely read while encoding.
+        session.getChunkCache().addToCache(packet.getX(), packet.getZ(), javaChunks, packet.getChunkData());
+
+        final int chunkBlockX = packet.getX() << 4;
+        final int chunkBlockZ = packet.getZ() << 4;
+        for (BlockEntityInfo blockEntity : blockEntities) {
+            BlockEntityType type = blockEntity.getType();
+            if (type == null) {
+                // As an example: ViaVersion will send -1 if it cannot find the block entity type
+                // Vanilla Minecraft gracefully handles this
+                continue;
+            }
+            CompoundTag tag = blockEntity.getNbt();
+            int x = blockEntity.getX(); // Relative to chunk
+            int y = blockEntity.getY();
+            int z = blockEntity.getZ(); // Relative to chunk
+
+            // Get the Java block state ID from block entity position
+            DataPalette section = javaChunks[(y >> 4) - yOffset];
+            int blockState = section.get(x, y & 0xF, z);
+
+            if (type == BlockEntityType.LECTERN && BlockStateValues.getLecternBookStates().get(blockState)) {
+                // If getLecternBookStates is false, let's just treat it like a normal block entity
+                bedrockBlockEntities.add(session.getGeyser().getWorldManager().getLecternDataAt(
+                        session, x + chunkBlockX, y, z + chunkBlockZ, true));
+                continue;
+            }
+
+            BlockEntityTranslator blockEntityTranslator = BlockEntityUtils.getBlockEntityTranslator(type);
+            bedrockBlockEntities.add(blockEntityTranslator.getBlockEntityTag(type, x + chunkBlockX, y, z + chunkBlockZ, tag, blockState));
+
+            // Check for custom skulls
+            if (session.getPreferencesCache().showCustomSkulls() && type == BlockEntityType.SKULL && tag != null && tag.contains("SkullOwner")) {
+                SkullBlockEntityTranslator.spawnPlayer(session, tag, x + chunkBlockX, y, z + chunkBlockZ, blockState);
+            }
+        }
+
+        // Capture everything the encoder needs from the session now, as it may run on another thread
+        ChunkEncodingContext context = new ChunkEncodingContext(session, packet.getX(), packet.getZ(), yOffset, chunkSize,
+                session.getChunkCache().isExtendedHeight(), session.getUpstream().getProtocolVersion(),
+                session.getBiomeTranslations(), session.getChunkBlobCache().isEnabled());
+
+        session.getChunkEncodingQueue().submit(packet.getX(), packet.getZ(),
+                () -> encode(context, javaSections, bedrockBlockEntities),
+                encodedChunk -> sendChunk(session, packet.getX(), packet.getZ(), encodedChunk));
+    }
+
+    /**
+     * Translates the Java chunk sections and biomes into the Bedrock chunk format. Can be run off of the session's event loop.
+     */
+    private static EncodedChunk encode(ChunkEncodingContext context, ChunkSection[] javaSections, List<NbtMap> bedrockBlockEntities) {
+        GeyserSession session = context.session();
+        int yOffset = context.yOffset();
+        int chunkSize = context.chunkSize();
+        boolean overworld = context.overworld();
+        int protocolVersion = context.protocolVersion();
+
         BitSet waterloggedPaletteIds = new BitSet();
         BitSet pistonOrFlowerPaletteIds = new BitSet();
+        // Java section data unpacked into Bedrock's XZY order, reused between sections
+        int[] sectionData = new int[BlockStorage.SIZE];
 
-        boolean overworld = session.getChunkCache().isExtendedHeight();
         int maxBedrockSectionY = ((overworld ? MAXIMUM_ACCEPTED_HEIGHT_OVERWORLD : MAXIMUM_ACCEPTED_HEIGHT) >> 4) - 1;
 
-        int sectionCount;
-        byte[] payload;
         ByteBuf byteBuf = null;
-        GeyserChunkSection[] sections = new GeyserChunkSection[javaChunks.length - (yOffset + ((overworld ? MINIMUM_ACCEPTED_HEIGHT_OVERWORLD : MINIMUM_ACCEPTED_HEIGHT) >> 4))];
+        GeyserChunkSection[] sections = new GeyserChunkSection[javaSections.length - (yOffset + ((overworld ? MINIMUM_ACCEPTED_HEIGHT_OVERWORLD : MINIMUM_ACCEPTED_HEIGHT) >> 4))];
+        // Sections that have already been serialized, either by us or by another session
+        byte[][] serializedSections = new byte[sections.length][];
 
         try {
-            NetInput in = new StreamNetInput(new ByteArrayInputStream(packet.getChunkData()));
             for (int sectionY = 0; sectionY < chunkSize; sectionY++) {
-                ChunkSection javaSection = ChunkSection.read(in, biomeGlobalPalette);
-                javaChunks[sectionY] = javaSection.getChunkData();
-                javaBiomes[sectionY] = javaSection.getBiomeData();
+                ChunkSection javaSection = javaSections[sectionY];
 
                 int bedrockSectionY = sectionY + (yOffset - ((overworld ? MINIMUM_ACCEPTED_HEIGHT_OVERWORLD : MINIMUM_ACCEPTED_HEIGHT) >> 4));
                 if (bedrockSectionY < 0 || maxBedrockSectionY < bedrockSectionY) {
@@ -127,38 +200,13 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
                 Palette javaPalette = javaSection.getChunkData().getPalette();
                 BitStorage javaData = javaSection.getChunkData().getStorage();
 
-                if (javaPalette instanceof GlobalPalette) {
-                    // As this is the global palette, simply iterate through the whole chunk section once
-                    GeyserChunkSection section = new GeyserChunkSection(session.getBlockMappings().getBedrockAirId());
-                    for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
-                        int javaId = javaData.get(yzx);
-                        int bedrockId = session.getBlockMappings().getBedrockBlockId(javaId);
-                        int xzy = indexYZXtoXZY(yzx);
-                        section.getBlockStorageArray()[0].setFullBlock(xzy, bedrockId);
-
-                        if (BlockRegistries.WATERLOGGED.get().contains(javaId)) {
-                            section.getBlockStorageArray()[1].setFullBlock(xzy, session.getBlockMappings().getBedrockWaterId());
-                        }
-
-                        // Check if block is piston or flower to see if we'll need to create additional block entities, as they're only block entities in Bedrock
-                        if (BlockStateValues.getFlowerPotValues().containsKey(javaId) || BlockStateValues.getPistonValues().containsKey(javaId)) {
-                            bedrockBlockEntities.add(BedrockOnlyBlockEntity.getTag(session,
-                                    Vector3i.from((packet.getX() << 4) + (yzx & 0xF), ((sectionY + yOffset) << 4) + ((yzx >> 8) & 0xF), (packet.getZ() << 4) + ((yzx >> 4) & 0xF)),
-                                    javaId
-                            ));
-                        }
-                    }
-                    sections[bedrockSectionY] = section;
-                    continue;
-                }
-
                 if (javaPalette instanceof SingletonPalette) {
                     // There's only one block here. Very easy!
                     int javaId = javaPalette.idToState(0);
                     int bedrockId = session.getBlockMappings().getBedrockBlockId(javaId);
                     BlockStorage blockStorage = new BlockStorage(SingletonBitArray.INSTANCE, IntLists.singleton(bedrockId));
 
-                    if (BlockRegistries.WATERLOGGED.get().contains(javaId)) {
+                    if (BlockStateFlags.isWaterlogged(javaId)) {
                         BlockStorage waterlogged = new BlockStorage(SingletonBitArray.INSTANCE, IntLists.singleton(session.getBlockMappings().getBedrockWaterId()));
                         sections[bedrockSectionY] = new GeyserChunkSection(new BlockStorage[] {blockStorage, waterlogged});
                     } else {
@@ -168,117 +216,124 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
                     continue;
                 }
 
-                IntList bedrockPalette = new IntArrayList(javaPalette.size());
-                waterloggedPaletteIds.clear();
-                pistonOrFlowerPaletteIds.clear();
+                TranslatedSectionCache.SectionKey cacheKey = null;
+                if (TranslatedSectionCache.isEnabled()) {
+                    // Another session may have already translated this exact section
+                    cacheKey = TranslatedSectionCache.SectionKey.from(protocolVersion, javaPalette, javaData);
+                    TranslatedSectionCache.TranslatedSection cached = TranslatedSectionCache.get(cacheKey);
+                    if (cached != null) {
+                        serializedSections[bedrockSectionY] = cached.data();
+                        if (cached.bedrockOnlyBlockEntities()) {
+                            addBedrockOnlyBlockEntities(session, context.chunkX(), context.chunkZ(), sectionY + yOffset, javaPalette, javaData, bedrockBlockEntities);
+                        }
+                        continue;
+                    }
+                }
 
-                // Iterate through palette and convert state IDs to Bedrock, doing some additional checks as we go
-                for (int i = 0; i < javaPalette.size(); i++) {
-                    int javaId = javaPalette.idToState(i);
-                    bedrockPalette.add(session.getBlockMappings().getBedrockBlockId(javaId));
+                // Convert data array from YZX to XZY coordinate order in one pass
+                unpackYZXtoXZY(javaData, sectionData);
 
-                    if (BlockRegistries.WATERLOGGED.get().contains(javaId)) {
-                        waterloggedPaletteIds.set(i);
-                    }
+                GeyserChunkSection section;
+                boolean hasBedrockOnlyBlockEntities;
+                if (javaPalette instanceof GlobalPalette) {
+                    // As this is the global palette, simply iterate through the whole chunk section once
+                    section = new GeyserChunkSection(session.getBlockMappings().getBedrockAirId());
+                    int previousBlockEntityCount = bedrockBlockEntities.size();
+                    for (int xzy = 0; xzy < BlockStorage.SIZE; xzy++) {
+                        int javaId = sectionData[xzy];
+                        int bedrockId = session.getBlockMappings().getBedrockBlockId(javaId);
+                        section.getBlockStorageArray()[0].setFullBlock(xzy, bedrockId);
 
-                    // Check if block is piston or flower to see if we'll need to create additional block entities, as they're only block entities in Bedrock
-                    if (BlockStateValues.getFlowerPotValues().containsKey(javaId) || BlockStateValues.getPistonValues().containsKey(javaId)) {
-                        pistonOrFlowerPaletteIds.set(i);
-                    }
-                }
+                        if (BlockStateFlags.isWaterlogged(javaId)) {
+                            section.getBlockStorageArray()[1].setFullBlock(xzy, session.getBlockMappings().getBedrockWaterId());
+                        }
 
-                // Add Bedrock-exclusive block entities
-                // We only if the palette contained any blocks that are Bedrock-exclusive block entities to avoid iterating through the whole block data
-                // for no reason, as most sections will not contain any pistons or flower pots
-                if (!pistonOrFlowerPaletteIds.isEmpty()) {
-                    for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
-                        int paletteId = javaData.get(yzx);
-                        if (pistonOrFlowerPaletteIds.get(paletteId)) {
+                        // Check if block is piston or flower to see if we'll need to create additional block entities, as they're only block entities in Bedrock
+                        if (BlockStateFlags.isBedrockOnlyBlockEntity(javaId)) {
                             bedrockBlockEntities.add(BedrockOnlyBlockEntity.getTag(session,
-                                    Vector3i.from((packet.getX() << 4) + (yzx & 0xF), ((sectionY + yOffset) << 4) + ((yzx >> 8) & 0xF), (packet.getZ() << 4) + ((yzx >> 4) & 0xF)),
-                                    javaPalette.idToState(paletteId)
+                                    Vector3i.from((context.chunkX() << 4) + (xzy >> 8), ((sectionY + yOffset) << 4) + (xzy & 0xF), (context.chunkZ() << 4) + ((xzy >> 4) & 0xF)),
+                                    javaId
                             ));
                         }
                     }
-                }
+                    hasBedrockOnlyBlockEntities = bedrockBlockEntities.size() != previousBlockEntityCount;
+                } else {
+                    IntList bedrockPalette = new IntArrayList(javaPalette.size());
+                    waterloggedPaletteIds.clear();
+                    pistonOrFlowerPaletteIds.clear();
+
+                    // Iterate through palette and convert state IDs to Bedrock, doing some additional checks as we go
+                    for (int i = 0; i < javaPalette.size(); i++) {
+                        int javaId = javaPalette.idToState(i);
+                        bedrockPalette.add(session.getBlockMappings().getBedrockBlockId(javaId));
 
-                BitArray bedrockData = BitArrayVersion.forBitsCeil(javaData.getBitsPerEntry()).createArray(BlockStorage.SIZE);
-                BlockStorage layer0 = new BlockStorage(bedrockData, bedrockPalette);
-                BlockStorage[] layers;
+                        if (BlockStateFlags.isWaterlogged(javaId)) {
+                            waterloggedPaletteIds.set(i);
+                        }
 
-                // Convert data array from YZX to XZY coordinate order
-                if (waterloggedPaletteIds.isEmpty()) {
-                    // No blocks are waterlogged, simply convert coordinate order
-                    // This could probably be optimized further...
-                    for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
-                        bedrockData.set(indexYZXtoXZY(yzx), javaData.get(yzx));
+                        // Check if block is piston or flower to see if we'll need to create additional block entities, as they're only block entities in Bedrock
+                        if (BlockStateFlags.isBedrockOnlyBlockEntity(javaId)) {
+                            pistonOrFlowerPaletteIds.set(i);
+                        }
                     }
 
-                    layers = new BlockStorage[]{ layer0 };
-                } else {
-                    // The section contains waterlogged blocks, we need to convert coordinate order AND generate a V1 block storage for
-                    // layer 1 with palette ID 1 indicating water
-                    int[] layer1Data = new int[BlockStorage.SIZE >> 5];
-                    for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
-                        int paletteId = javaData.get(yzx);
-                        int xzy = indexYZXtoXZY(yzx);
-                        bedrockData.set(xzy, paletteId);
-
-                        if (waterloggedPaletteIds.get(paletteId)) {
-                            layer1Data[xzy >> 5] |= 1 << (xzy & 0x1F);
+                    // Add Bedrock-exclusive block entities
+                    // We only if the palette contained any blocks that are Bedrock-exclusive block entities to avoid iterating through the whole block data
+                    // for no reason, as most sections will not contain any pistons or flower pots
+                    hasBedrockOnlyBlockEntities = !pistonOrFlowerPaletteIds.isEmpty();
+                    if (hasBedrockOnlyBlockEntities) {
+                        for (int xzy = 0; xzy < BlockStorage.SIZE; xzy++) {
+                            int paletteId = sectionData[xzy];
+                            if (pistonOrFlowerPaletteIds.get(paletteId)) {
+                                bedrockBlockEntities.add(BedrockOnlyBlockEntity.getTag(session,
+                                        Vector3i.from((context.chunkX() << 4) + (xzy >> 8), ((sectionY + yOffset) << 4) + (xzy & 0xF), (context.chunkZ() << 4) + ((xzy >> 4) & 0xF)),
+                                        javaPalette.idToState(paletteId)
+                                ));
+                            }
                         }
                     }
 
-                    // V1 palette
-                    IntList layer1Palette = new IntArrayList(2);
-                    layer1Palette.add(session.getBlockMappings().getBedrockAirId()); // Air - see BlockStorage's constructor for more information
-                    layer1Palette.add(session.getBlockMappings().getBedrockWaterId());
+                    BitArray bedrockData = BitArrayVersion.forBitsCeil(javaData.getBitsPerEntry()).createArray(BlockStorage.SIZE);
+                    bedrockData.setAll(sectionData);
+                    BlockStorage layer0 = new BlockStorage(bedrockData, bedrockPalette);
+                    BlockStorage[] layers;
 
-                    layers = new BlockStorage[]{ layer0, new BlockStorage(BitArrayVersion.V1.createArray(BlockStorage.SIZE, layer1Data), layer1Palette) };
-                }
+                    if (waterloggedPaletteIds.isEmpty()) {
+                        // No blocks are waterlogged
+                        layers = new BlockStorage[]{ layer0 };
+                    } else {
+                        // The section contains waterlogged blocks, we need to generate a V1 block storage for
+                        // layer 1 with palette ID 1 indicating water
+                        int[] layer1Data = new int[BlockStorage.SIZE >> 5];
+                        for (int xzy = 0; xzy < BlockStorage.SIZE; xzy++) {
+                            if (waterloggedPaletteIds.get(sectionData[xzy])) {
+                                layer1Data[xzy >> 5] |= 1 << (xzy & 0x1F);
+                            }
+                        }
 
-                sections[bedrockSectionY] = new GeyserChunkSection(layers);
-            }
+                        // V1 palette
+                        IntList layer1Palette = new IntArrayList(2);
+                        layer1Palette.add(session.getBlockMappings().getBedrockAirId()); // Air - see BlockStorage's constructor for more information
+                        layer1Palette.add(session.getBlockMappings().getBedrockWaterId());
 
-            session.getChunkCache().addToCache(packet.getX(), packet.getZ(), javaChunks);
+                        layers = new BlockStorage[]{ layer0, new BlockStorage(BitArrayVersion.V1.createArray(BlockStorage.SIZE, layer1Data), layer1Palette) };
+                    }
 
-            final int chunkBlockX = packet.getX() << 4;
-            final int chunkBlockZ = packet.getZ() << 4;
-            for (BlockEntityInfo blockEntity : blockEntities) {
-                BlockEntityType type = blockEntity.getType();
-                if (type == null) {
-                    // As an example: ViaVersion will send -1 if it cannot find the block entity type
-                    // Vanilla Minecraft gracefully handles this
-                    continue;
-                }
-                CompoundTag tag = blockEntity.getNbt();
-                int x = blockEntity.getX(); // Relative to chunk
-                int y = blockEntity.getY();
-                int z = blockEntity.getZ(); // Relative to chunk
-
-                // Get the Java block state ID from block entity position
-                DataPalette section = javaChunks[(y >> 4) - yOffset];
-                int blockState = section.get(x, y & 0xF, z);
-
-                if (type == BlockEntityType.LECTERN && BlockStateValues.getLecternBookStates().get(blockState)) {
-                    // If getLecternBookStates is false, let's just treat it like a normal block entity
-                    bedrockBlockEntities.add(session.getGeyser().getWorldManager().getLecternDataAt(
-                            session, x + chunkBlockX, y, z + chunkBlockZ, true));
-                    continue;
+                    section = new GeyserChunkSection(layers);
                 }
 
-                BlockEntityTranslator blockEntityTranslator = BlockEntityUtils.getBlockEntityTranslator(type);
-                bedrockBlockEntities.add(blockEntityTranslator.getBlockEntityTag(type, x + chunkBlockX, y, z + chunkBlockZ, tag, blockState));
-
-                // Check for custom skulls
-                if (session.getPreferencesCache().showCustomSkulls() && type == BlockEntityType.SKULL && tag != null && tag.contains("SkullOwner")) {
-                    SkullBlockEntityTranslator.spawnPlayer(session, tag, x + chunkBlockX, y, z + chunkBlockZ, blockState);
+                if (cacheKey != null) {
+                    byte[] serialized = section.serialize();
+                    TranslatedSectionCache.put(cacheKey, new TranslatedSectionCache.TranslatedSection(serialized, hasBedrockOnlyBlockEntities));
+                    serializedSections[bedrockSectionY] = serialized;
+                } else {
+                    sections[bedrockSectionY] = section;
                 }
             }
 
             // Find highest section
-            sectionCount = sections.length - 1;
-            while (sectionCount >= 0 && sections[sectionCount] == null) {
+            int sectionCount = sections.length - 1;
+            while (sectionCount >= 0 && sections[sectionCount] == null && serializedSections[sectionCount] == null) {
                 sectionCount--;
             }
             sectionCount++;
@@ -289,6 +344,8 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
                 GeyserChunkSection section = sections[i];
                 if (section != null) {
                     size += section.estimateNetworkSize();
+                } else if (serializedSections[i] != null) {
+                    size += serializedSections[i].length;
                 } else {
                     size += SERIALIZED_CHUNK_DATA.length;
                 }
@@ -300,18 +357,25 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
 
             // Allocate output buffer
             byteBuf = ByteBufAllocator.DEFAULT.buffer(size);
+            // The start of each section, then the start of the biomes, then the start of the remaining data
+            int[] blobOffsets = new int[sectionCount + 2];
             for (int i = 0; i < sectionCount; i++) {
+                blobOffsets[i] = byteBuf.writerIndex();
                 GeyserChunkSection section = sections[i];
                 if (section != null) {
                     section.writeToNetwork(byteBuf);
+                } else if (serializedSections[i] != null) {
+                    byteBuf.writeBytes(serializedSections[i]);
                 } else {
                     byteBuf.writeBytes(SERIALIZED_CHUNK_DATA);
                 }
             }
 
+            blobOffsets[sectionCount] = byteBuf.writerIndex();
+
             // As of 1.17.10, Bedrock hardcodes to always read 32 biome sections
             // As of 1.18, this hardcode was lowered to 25
-            boolean isNewVersion = session.getUpstream().getProtocolVersion() >= Bedrock_v475.V475_CODEC.getProtocolVersion();
+            boolean isNewVersion = protocolVersion >= Bedrock_v475.V475_CODEC.getProtocolVersion();
             int biomeCount = isNewVersion ? 25 : 32;
             int dimensionOffset = (overworld ? MINIMUM_ACCEPTED_HEIGHT_OVERWORLD : MINIMUM_ACCEPTED_HEIGHT) >> 4;
             for (int i = 0; i < biomeCount; i++) {
@@ -333,9 +397,11 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
                     continue;
                 }
 
-                BiomeTranslator.toNewBedrockBiome(session, javaBiomes[i + (dimensionOffset - yOffset)]).writeToNetwork(byteBuf);
+                BiomeTranslator.toNewBedrockBiome(context.biomeTranslations(), javaSections[i + (dimensionOffset - yOffset)].getBiomeData()).writeToNetwork(byteBuf);
             }
 
+            blobOffsets[sectionCount + 1] = byteBuf.writerIndex();
+
             byteBuf.writeByte(0); // Border blocks - Edu edition only
             VarInts.writeUnsignedInt(byteBuf, 0); // extra data length, 0 for now
 
@@ -346,31 +412,88 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
             }
 
             // Copy data into byte[], because the protocol lib really likes things that are s l o w
-            byteBuf.readBytes(payload = new byte[byteBuf.readableBytes()]);
+            byte[] payload = new byte[byteBuf.readableBytes()];
+            byteBuf.readBytes(payload);
+
+            long[] blobHashes = null;
+            if (context.blobCache()) {
+                // Each section is a blob, and all biome data is one blob after the sections
+                blobHashes = new long[sectionCount + 1];
+                for (int i = 0; i < blobHashes.length; i++) {
+                    blobHashes[i] = XXHash64.hash(payload, blobOffsets[i], blobOffsets[i + 1] - blobOffsets[i], 0L);
+                }
+            }
+            return new EncodedChunk(sectionCount, payload, blobOffsets, blobHashes);
         } catch (IOException e) {
-            session.getGeyser().getLogger().error("IO error while encoding chunk", e);
-            return;
+            throw new UncheckedIOException(e);
         } finally {
             if (byteBuf != null) {
                 byteBuf.release(); // Release buffer to allow buffer pooling to be useful
             }
         }
+    }
 
+    private static void sendChunk(GeyserSession session, int chunkX, int chunkZ, EncodedChunk encodedChunk) {
         LevelChunkPacket levelChunkPacket = new LevelChunkPacket();
-        levelChunkPacket.setSubChunksLength(sectionCount);
-        levelChunkPacket.setCachingEnabled(false);
-        levelChunkPacket.setChunkX(packet.getX());
-        levelChunkPacket.setChunkZ(packet.getZ());
-        levelChunkPacket.setData(payload);
+        levelChunkPacket.setSubChunksLength(encodedChunk.sectionCount());
+        ChunkBlobCache blobCache = session.getChunkBlobCache();
+        long[] blobHashes = encodedChunk.blobHashes();
+        if (blobHashes != null && blobCache.trackChunk(chunkX, chunkZ, encodedChunk.payload(), encodedChunk.blobOffsets(), blobHashes)) {
+            levelChunkPacket.setCachingEnabled(true);
+            byte[] payload = encodedChunk.payload();
+            int[] blobOffsets = encodedChunk.blobOffsets();
+            for (long blobHash : blobHashes) {
+                levelChunkPacket.getBlobIds().add(blobHash);
+            }
+            // The remaining payload only contains what can't be cached
+            levelChunkPacket.setData(Arrays.copyOfRange(payload, blobOffsets[blobHashes.length], payload.length));
+        } else {
+            levelChunkPacket.setCachingEnabled(false);
+            levelChunkPacket.setData(encodedChunk.payload());
+        }
+        levelChunkPacket.setChunkX(chunkX);
+        levelChunkPacket.setChunkZ(chunkZ);
         session.sendUpstreamPacket(levelChunkPacket);
 
         for (Map.Entry<Vector3i, ItemFrameEntity> entry : session.getItemFrameCache().entrySet()) {
             Vector3i position = entry.getKey();
-            if ((position.getX() >> 4) == packet.getX() && (position.getZ() >> 4) == packet.getZ()) {
+            if ((position.getX() >> 4) == chunkX && (position.getZ() >> 4) == chunkZ) {
                 // Update this item frame so it doesn't get lost in the abyss
                 //TODO optimize
                 entry.getValue().updateBlock(true);
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Adds the Bedrock-only block entities (pistons and flower pots) of a section whose blocks were not translated by us.
+     */
+    private static void addBedrockOnlyBlockEntities(GeyserSession session, int chunkX, int chunkZ, int sectionY,
+                                                    Palette javaPalette, BitStorage javaData, List<NbtMap> bedrockBlockEntities) {
+        for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
+            int javaId = javaPalette.idToState(javaData.get(yzx));
+            if (BlockStateFlags.isBedrockOnlyBlockEntity(javaId)) {
+                bedrockBlockEntities.add(BedrockOnlyBlockEntity.getTag(session,
+                        Vector3i.from((chunkX << 4) + (yzx & 0xF), (sectionY << 4) + ((yzx >> 8) & 0xF), (chunkZ << 4) + ((yzx >> 4) & 0xF)),
+                        javaId
+                ));
+            }
+        }
+    }
+
+    /**
+     * Session state needed to encode a chunk, captured on the session's event loop.
+     * The session itself should only be used for state that does not change after login, such as block mappings.
+     */
+    private record ChunkEncodingContext(GeyserSession session, int chunkX, int chunkZ, int yOffset, int chunkSize,
+                                        boolean overworld, int protocolVersion, Int2IntMap biomeTranslations,
+                                        boolean blobCache) {
+    }
+
+    /**
+     * @param blobOffsets the start index of each section, then of the biomes, then of the rest of the payload
+     * @param blobHashes the hash of each section and then of the biomes, if the client blob cache is used
+     */
+    private record EncodedChunk(int sectionCount, byte[] payload, int[] blobOffsets, long[] blobHashes) {
+    }
+}
@@ -30,12 +30,13 @@ import com.github.steveice10.mc.protocol.data.game.level.map.MapIcon;
 import com.github.steveice10.mc.protocol.packet.ingame.clientbound.level.ClientboundMapItemDataPacket;
 import com.nukkitx.protocol.bedrock.data.MapDecoration;
 import com.nukkitx.protocol.bedrock.data.MapTrackedObject;
+import org.geysermc.geyser.level.map.MapCanvas;
 import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.session.cache.MapCache;
 import org.geysermc.geyser.translator.protocol.PacketTranslator;
 import org.geysermc.geyser.translator.protocol.Translator;
 import org.geysermc.geyser.level.BedrockMapIcon;
 import org.geysermc.geyser.util.DimensionUtils;
-import org.geysermc.geyser.level.MapColor;
 
 @Translator(packet = ClientboundMapItemDataPacket.class)
 public class JavaMapItemDataTranslator extends PacketTranslator<ClientboundMapItemDataPacket> {
@@ -43,7 +44,7 @@ public class JavaMapItemDataTranslator extends PacketTranslator<ClientboundMapIt
     @Override
     public void translate(GeyserSession session, ClientboundMapItemDataPacket packet) {
         com.nukkitx.protocol.bedrock.packet.ClientboundMapItemDataPacket mapItemDataPacket = new com.nukkitx.protocol.bedrock.packet.ClientboundMapItemDataPacket();
-        boolean shouldStore = false;
+        MapCache.StoredMap storedMap = session.getMapCache().getOrCreate(packet.getMapId());
 
         mapItemDataPacket.setUniqueMapId(packet.getMapId());
         mapItemDataPacket.setDimensionId(DimensionUtils.javaToBedrock(session.getDimension()));
@@ -52,25 +53,18 @@ public class JavaMapItemDataTranslator extends PacketTranslator<ClientboundMapIt
 
         MapData data = packet.getData();
         if (data != null) {
-            mapItemDataPacket.setXOffset(data.getX());
-            mapItemDataPacket.setYOffset(data.getY());
-            mapItemDataPacket.setWidth(data.getColumns());
-            mapItemDataPacket.setHeight(data.getRows());
+            // Merge the update into the shared canvas, which tells us which part of it this client is missing
+            MapCanvas.Update update = storedMap.getCanvas().update(data.getX(), data.getY(), data.getColumns(), data.getRows(),
+                    data.getData(), storedMap.getClientView());
 
-            // We have a full map image, this usually only happens on spawn for the initial image
-            if (mapItemDataPacket.getWidth() == 128 && mapItemDataPacket.getHeight() == 128) {
-                shouldStore = true;
+            if (update.colors() != null) {
+                mapItemDataPacket.setXOffset(update.x());
+                mapItemDataPacket.setYOffset(update.y());
+                mapItemDataPacket.setWidth(update.width());
+                mapItemDataPacket.setHeight(update.height());
+                // Every int entry is an ARGB color
+                mapItemDataPacket.setColors(update.colors());
             }
-
-            // Every int entry is an ARGB color
-            int[] colors = new int[data.getData().length];
-
-            int idx = 0;
-            for (byte colorId : data.getData()) {
-                colors[idx++] = MapColor.fromId(colorId & 0xFF).getARGB();
-            }
-
-            mapItemDataPacket.setColors(colors);
         }
 
         // Bedrock needs an entity id to display an icon
@@ -83,10 +77,11 @@ public class JavaMapItemDataTranslator extends PacketTranslator<ClientboundMapIt
             id++;
         }
 
-        // Store the map to send when the client requests it, as bedrock expects the data after a MapInfoRequestPacket
-        if (shouldStore) {
-            session.getStoredMaps().put(mapItemDataPacket.getUniqueMapId(), mapItemDataPacket);
-        }
+        // Remember everything but the image to send when the client requests it, as bedrock expects the data after a MapInfoRequestPacket
+        storedMap.setScale(packet.getScale());
+        storedMap.setLocked(packet.isLocked());
+        storedMap.setTrackedObjects(mapItemDataPacket.getTrackedObjects());
+        storedMap.setDecorations(mapItemDataPacket.getDecorations());
 
         // Send anyway just in case
         session.sendUpstreamPacket(mapItemDataPacket);
@@ -36,7 +36,6 @@ import org.geysermc.geyser.translator.protocol.PacketTranslator;
 import org.geysermc.geyser.translator.protocol.Translator;
 import org.geysermc.geyser.translator.text.MessageTranslator;
 import org.geysermc.geyser.scoreboard.Scoreboard;
-import org.geysermc.geyser.scoreboard.ScoreboardUpdater;
 import org.geysermc.geyser.scoreboard.Team;
 import org.geysermc.geyser.scoreboard.UpdateType;
 
@@ -137,10 +136,8 @@ public class JavaSetPlayerTeamTranslator extends PacketTranslator<ClientboundSet
             case REMOVE -> scoreboard.removeTeam(packet.getTeamName());
         }
 
-        // ScoreboardUpdater will handle it for us if the packets per second
+        // The update is delayed if the packets per second
         // (for score and team packets) is higher than the first threshold
-        if (pps < ScoreboardUpdater.FIRST_SCORE_PACKETS_PER_SECOND_THRESHOLD) {
-            scoreboard.onUpdate();
-        }
+        session.getWorldCache().updateScoreboard(pps);
     }
 }
@@ -39,7 +39,6 @@ import org.geysermc.geyser.translator.protocol.PacketTranslator;
 import org.geysermc.geyser.translator.protocol.Translator;
 import org.geysermc.geyser.scoreboard.Objective;
 import org.geysermc.geyser.scoreboard.Scoreboard;
-import org.geysermc.geyser.scoreboard.ScoreboardUpdater;
 import org.geysermc.geyser.text.GeyserLocale;
 
 @Translator(packet = ClientboundSetScorePacket.class)
@@ -98,11 +97,9 @@ public class JavaSetScoreTranslator extends PacketTranslator<ClientboundSetScore
             }
         }
 
-        // ScoreboardUpdater will handle it for us if the packets per second
+        // The update is delayed if the packets per second
         // (for score and team packets) is higher than the first threshold
-        if (pps < ScoreboardUpdater.FIRST_SCORE_PACKETS_PER_SECOND_THRESHOLD) {
-            scoreboard.onUpdate();
-        }
+        worldCache.updateScoreboard(pps);
     }
 
     /**
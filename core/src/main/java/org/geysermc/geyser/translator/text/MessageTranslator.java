@@ -27,7 +27,11 @@ package org.geysermc.geyser.translator.text;
 
 import com.github.steveice10.mc.protocol.data.DefaultComponentSerializer;
 import com.github.steveice10.mc.protocol.data.game.scoreboard.TeamColor;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.renderer.TranslatableComponentRenderer;
 import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
@@ -37,7 +41,9 @@ import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.text.*;
 
 import java.util.EnumMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 public class MessageTranslator {
     // These are used for handling the translations of the messages
@@ -56,6 +62,15 @@ public class MessageTranslator {
     // Reset character
     private static final String RESET = BASE + "r";
 
+    /**
+     * Converted messages, shared across sessions so broadcast messages are only converted once per locale.
+     */
+    private static final Cache<MessageKey, String> MESSAGE_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(4096)
+            .recordStats()
+            .build();
+    private static final LongAdder PLAIN_TEXT_MESSAGES = new LongAdder();
+
     static {
         TEAM_COLORS.put(TeamColor.RESET, RESET);
 
@@ -102,40 +117,30 @@ public class MessageTranslator {
      * @return Parsed and formatted message for bedrock
      */
     public static String convertMessage(Component message, String locale) {
+        if (isPlainText(message)) {
+            // Nothing to render, and nothing worth caching
+            PLAIN_TEXT_MESSAGES.increment();
+            return toBedrockFormatting(((TextComponent) message).content());
+        }
+
+        MessageKey key = new MessageKey(message, locale);
+        String cached = MESSAGE_CACHE.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        String converted = renderMessage(message, locale);
+        if (isLocaleLoaded(locale)) {
+            MESSAGE_CACHE.put(key, converted);
+        }
+        return converted;
+    }
+
+    private static String renderMessage(Component message, String locale) {
         try {
             // Translate any components that require it
             message = RENDERER.render(message, locale);
 
-            String legacy = LegacyComponentSerializer.legacySection().serialize(message);
-
-            StringBuilder finalLegacy = new StringBuilder();
-            char[] legacyChars = legacy.toCharArray();
-            boolean lastFormatReset = false;
-            for (int i = 0; i < legacyChars.length; i++) {
-                char legacyChar = legacyChars[i];
-                if (legacyChar != ChatColor.ESCAPE || i >= legacyChars.length - 1) {
-                    // No special formatting for Bedrock needed
-                    // Or, we're at the end of the string
-                    finalLegacy.append(legacyChar);
-                    lastFormatReset = false;
-                    continue;
-                }
-
-                char next = legacyChars[++i];
-                if (next != 'm' && next != 'n') {
-                    // Strikethrough and underline do not exist on Bedrock
-                    if ((next >= '0' && next <= '9') || (next >= 'a' && next <= 'f')) {
-                        // Append this color code, as well as a necessary reset code
-                        if (!lastFormatReset) {
-                            finalLegacy.append(RESET);
-                        }
-                    }
-                    finalLegacy.append(BASE).append(next);
-                }
-                lastFormatReset = next == 'r';
-            }
-
-            return finalLegacy.toString();
+            return toBedrockFormatting(LegacyComponentSerializer.legacySection().serialize(message));
         } catch (Exception e) {
             GeyserImpl.getInstance().getLogger().debug(GSON_SERIALIZER.serialize(message));
             GeyserImpl.getInstance().getLogger().error("Failed to parse message", e);
@@ -144,8 +149,75 @@ public class MessageTranslator {
         }
     }
 
+    /**
+     * Rewrites legacy formatting codes in the way Bedrock expects them.
+     */
+    private static String toBedrockFormatting(String legacy) {
+        if (legacy.indexOf(ChatColor.ESCAPE) == -1) {
+            return legacy;
+        }
+
+        StringBuilder finalLegacy = new StringBuilder();
+        char[] legacyChars = legacy.toCharArray();
+        boolean lastFormatReset = false;
+        for (int i = 0; i < legacyChars.length; i++) {
+            char legacyChar = legacyChars[i];
+            if (legacyChar != ChatColor.ESCAPE || i >= legacyChars.length - 1) {
+                // No special formatting for Bedrock needed
+                // Or, we're at the end of the string
+                finalLegacy.append(legacyChar);
+                lastFormatReset = false;
+                continue;
+            }
+
+            char next = legacyChars[++i];
+            if (next != 'm' && next != 'n') {
+                // Strikethrough and underline do not exist on Bedrock
+                if ((next >= '0' && next <= '9') || (next >= 'a' && next <= 'f')) {
+                    // Append this color code, as well as a necessary reset code
+                    if (!lastFormatReset) {
+                        finalLegacy.append(RESET);
+                    }
+                }
+                finalLegacy.append(BASE).append(next);
+            }
+            lastFormatReset = next == 'r';
+        }
+
+        return finalLegacy.toString();
+    }
+
+    private static boolean isPlainText(Component message) {
+        return message instanceof TextComponent && message.children().isEmpty() && message.style().isEmpty();
+    }
+
+    /**
+     * Messages are only cached once their locale is loaded, so translations are not stuck on the fallback.
+     */
+    private static boolean isLocaleLoaded(String locale) {
+        return MinecraftLocale.LOCALE_MAPPINGS.containsKey(locale.toLowerCase(Locale.ROOT));
+    }
+
     public static String convertMessage(String message, String locale) {
-        return convertMessage(GSON_SERIALIZER.deserialize(message), locale);
+        // The JSON is cached as well, which also saves deserializing it
+        MessageKey key = new MessageKey(message, locale);
+        String cached = MESSAGE_CACHE.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Component component = GSON_SERIALIZER.deserialize(message);
+        String converted;
+        if (isPlainText(component)) {
+            PLAIN_TEXT_MESSAGES.increment();
+            converted = toBedrockFormatting(((TextComponent) component).content());
+        } else {
+            converted = renderMessage(component, locale);
+        }
+        if (isLocaleLoaded(locale)) {
+            MESSAGE_CACHE.put(key, converted);
+        }
+        return converted;
     }
 
     public static String convertMessage(String message) {
@@ -254,7 +326,31 @@ public class MessageTranslator {
         return false;
     }
 
+    /**
+     * @return the hit/miss statistics of the converted message cache
+     */
+    public static CacheStats cacheStats() {
+        return MESSAGE_CACHE.stats();
+    }
+
+    public static long cacheSize() {
+        return MESSAGE_CACHE.size();
+    }
+
+    /**
+     * @return how many messages were plain text, and were converted without rendering them
+     */
+    public static long plainTextMessages() {
+        return PLAIN_TEXT_MESSAGES.sum();
+    }
+
     public static void init() {
         // no-op
     }
+
+    /**
+     * @param message either the message as a component, or its JSON
+     */
+    private record MessageKey(Object message, String locale) {
+    }
 }
@@ -32,6 +32,7 @@ import org.geysermc.geyser.inventory.GeyserItemStack;
 import org.geysermc.geyser.inventory.PlayerInventory;
 import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.translator.collision.BlockCollision;
+import org.geysermc.geyser.level.block.BlockStateFlags;
 import org.geysermc.geyser.level.block.BlockStateValues;
 import org.geysermc.geyser.registry.Registries;
 import org.geysermc.geyser.registry.type.BlockMapping;
@@ -231,6 +232,10 @@ public class BlockUtils {
     }
 
     public static BlockCollision getCollision(int blockId) {
+        if (BlockStateFlags.hasNoCollision(blockId)) {
+            // Most blocks around a player are air, so skip the map lookup
+            return null;
+        }
         return Registries.COLLISIONS.get(blockId);
     }
 
@@ -25,6 +25,7 @@
 
 package org.geysermc.geyser.util;
 
+import com.github.steveice10.mc.protocol.data.game.chunk.BitStorage;
 import com.github.steveice10.mc.protocol.data.game.entity.metadata.Position;
 import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
 import com.github.steveice10.opennbt.tag.builtin.IntTag;
@@ -39,11 +40,12 @@ import it.unimi.dsi.fastutil.ints.IntLists;
 import lombok.experimental.UtilityClass;
 import org.geysermc.geyser.entity.type.ItemFrameEntity;
 import org.geysermc.geyser.entity.type.player.SkullPlayerEntity;
+import org.geysermc.geyser.level.block.BlockStateFlags;
 import org.geysermc.geyser.level.block.BlockStateValues;
 import org.geysermc.geyser.level.chunk.BlockStorage;
+import org.geysermc.geyser.level.chunk.ChunkEncodingQueue;
 import org.geysermc.geyser.level.chunk.GeyserChunkSection;
 import org.geysermc.geyser.level.chunk.bitarray.SingletonBitArray;
-import org.geysermc.geyser.registry.BlockRegistries;
 import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.text.GeyserLocale;
 import org.geysermc.geyser.translator.level.block.entity.BedrockOnlyBlockEntity;
@@ -114,6 +116,29 @@ public class ChunkUtils {
         return (yzx >> 8) | (yzx & 0x0F0) | ((yzx & 0x00F) << 8);
     }
 
+    /**
+     * Unpacks a whole Java section's storage in a single pass, writing each value to its Bedrock (XZY) index.
+     * Java entries never span two longs, so each long can be shifted through without any per-entry division.
+     *
+     * @param storage the Java storage of a block section, in YZX order
+     * @param out an array of at least {@link BlockStorage#SIZE} entries to receive the values in XZY order
+     */
+    public static void unpackYZXtoXZY(BitStorage storage, int[] out) {
+        int bits = storage.getBitsPerEntry();
+        int valuesPerLong = 64 / bits;
+        long mask = (1L << bits) - 1L;
+        long[] data = storage.getData();
+        int yzx = 0;
+        for (int i = 0; i < data.length && yzx < BlockStorage.SIZE; i++) {
+            long word = data[i];
+            int end = Math.min(yzx + valuesPerLong, BlockStorage.SIZE);
+            for (; yzx < end; yzx++) {
+                out[indexYZXtoXZY(yzx)] = (int) (word & mask);
+                word >>>= bits;
+            }
+        }
+    }
+
     public static void updateChunkPosition(GeyserSession session, Vector3i position) {
         Vector2i chunkPos = session.getLastChunkPosition();
         Vector2i newChunkPos = Vector2i.from(position.getX() >> 4, position.getZ() >> 4);
@@ -148,6 +173,17 @@ public class ChunkUtils {
      * @param position the position of the block
      */
     public static void updateBlock(GeyserSession session, int blockState, Vector3i position) {
+        ChunkEncodingQueue encodingQueue = session.getChunkEncodingQueue();
+        if (encodingQueue.isPending(position.getX() >> 4, position.getZ() >> 4)) {
+            // This chunk has not been sent to the client yet - the block update must come after it
+            encodingQueue.runOrdered(position.getX() >> 4, position.getZ() >> 4, () -> updateBlock0(session, blockState, position));
+            return;
+        }
+
+        updateBlock0(session, blockState, position);
+    }
+
+    private static void updateBlock0(GeyserSession session, int blockState, Vector3i position) {
         // Checks for item frames so they aren't tripped up and removed
         ItemFrameEntity itemFrameEntity = ItemFrameEntity.getItemFrameEntity(session, position);
         if (itemFrameEntity != null) {
@@ -182,7 +218,7 @@ public class ChunkUtils {
             UpdateBlockPacket waterPacket = new UpdateBlockPacket();
             waterPacket.setDataLayer(1);
             waterPacket.setBlockPosition(position);
-            if (BlockRegistries.WATERLOGGED.get().contains(blockState)) {
+            if (BlockStateFlags.isWaterlogged(blockState)) {
                 waterPacket.setRuntimeId(session.getBlockMappings().getBedrockWaterId());
             } else {
                 waterPacket.setRuntimeId(session.getBlockMappings().getBedrockAirId());
@@ -63,6 +63,8 @@ public class DimensionUtils {
         Entity player = session.getPlayerEntity();
 
         session.getChunkCache().clear();
+        // Chunks from the previous dimension that are still being encoded should not be sent
+        session.getChunkEncodingQueue().clear();
         session.getEntityCache().removeAllEntities();
         session.getItemFrameCache().clear();
         if (session.getLecternCache() != null) {
@@ -92,6 +92,8 @@ public class InventoryUtils {
                     Inventory openInv = session.getOpenInventory();
                     if (openInv != null && openInv.getId() == inventory.getId()) {
                         translator.openInventory(session, inventory);
+                        // Anything sent before the window opened was ignored by the client
+                        inventory.setSentItems(null);
                         translator.updateInventory(session, inventory);
                     } else if (openInv != null && openInv.isPending()) {
                         // Presumably, this inventory is no longer relevant, and the client doesn't care about it
@@ -100,6 +102,7 @@ public class InventoryUtils {
                 }, 200, TimeUnit.MILLISECONDS);
             } else {
                 translator.openInventory(session, inventory);
+                inventory.setSentItems(null);
                 translator.updateInventory(session, inventory);
             }
         } else {
@@ -30,6 +30,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeType;
 import com.github.steveice10.mc.auth.service.MsaAuthenticationService;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.nimbusds.jose.JWSObject;
 import com.nimbusds.jose.shaded.json.JSONObject;
 import com.nimbusds.jose.shaded.json.JSONValue;
@@ -51,12 +53,12 @@ import org.geysermc.cumulus.response.SimpleFormResponse;
 import org.geysermc.geyser.text.ChatColor;
 import org.geysermc.geyser.text.GeyserLocale;
 
+import javax.annotation.Nullable;
 import javax.crypto.SecretKey;
 import java.io.IOException;
 import java.net.URI;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
-import java.security.PublicKey;
 import java.security.interfaces.ECPublicKey;
 import java.security.spec.ECGenParameterSpec;
 import java.util.Iterator;
@@ -65,8 +67,33 @@ import java.util.UUID;
 public class LoginEncryptionUtils {
     private static final ObjectMapper JSON_MAPPER = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
 
+    /**
+     * Public keys decoded from login chains. The Mojang and Xbox keys that sign the chain are the same for most
+     * players, so they don't need to be decoded again for every login.
+     */
+    private static final Cache<String, ECPublicKey> PUBLIC_KEYS = CacheBuilder.newBuilder()
+            .maximumSize(256)
+            .build();
+    /**
+     * How long it took from receiving the login packet to having verified and encrypted the connection.
+     */
+    private static final LatencyRecorder LOGIN_LATENCY = new LatencyRecorder(1024);
+
     private static boolean HAS_SENT_ENCRYPTION_MESSAGE = false;
 
+    private static ECPublicKey decodeKey(String encodedKey) throws Exception {
+        ECPublicKey key = PUBLIC_KEYS.getIfPresent(encodedKey);
+        if (key == null) {
+            key = EncryptionUtils.generateKey(encodedKey);
+            PUBLIC_KEYS.put(encodedKey, key);
+        }
+        return key;
+    }
+
+    public static LatencyRecorder getLoginLatency() {
+        return LOGIN_LATENCY;
+    }
+
     private static boolean validateChainData(JsonNode data) throws Exception {
         if (data.size() != 3) {
             return false;
@@ -85,7 +112,7 @@ public class LoginEncryptionUtils {
                 return false;
             }
 
-            ECPublicKey expectedKey = EncryptionUtils.generateKey(jwt.getHeader().getX509CertURL().toString());
+            ECPublicKey expectedKey = decodeKey(x5u.toString());
             // First key is self-signed
             if (lastKey == null) {
                 lastKey = expectedKey;
@@ -110,13 +137,18 @@ public class LoginEncryptionUtils {
 
             Object identityPublicKey = ((JSONObject) payload).get("identityPublicKey");
             Preconditions.checkArgument(identityPublicKey instanceof String, "identityPublicKey node is missing in chain");
-            lastKey = EncryptionUtils.generateKey((String) identityPublicKey);
+            lastKey = decodeKey((String) identityPublicKey);
         }
 
         return mojangSigned;
     }
 
-    public static void encryptPlayerConnection(GeyserSession session, LoginPacket loginPacket) {
+    /**
+     * Verifies the login chain and prepares the encryption handshake. This is the expensive part of logging in,
+     * and does not touch the session, so it can be run on any thread.
+     * The result must then be passed to {@link #completeLogin(GeyserSession, VerifiedLogin)}.
+     */
+    public static VerifiedLogin verifyLogin(GeyserImpl geyser, LoginPacket loginPacket) throws Exception {
         JsonNode certData;
         try {
             certData = JSON_MAPPER.readTree(loginPacket.getChainData().toByteArray());
@@ -129,82 +161,100 @@ public class LoginEncryptionUtils {
             throw new RuntimeException("Certificate data is not valid");
         }
 
-        encryptConnectionWithCert(session, loginPacket.getSkinData().toString(), certChainData);
-    }
-
-    private static void encryptConnectionWithCert(GeyserSession session, String clientData, JsonNode certChainData) {
-        try {
-            GeyserImpl geyser = session.getGeyser();
-
-            boolean validChain = validateChainData(certChainData);
-
-            geyser.getLogger().debug(String.format("Is player data valid? %s", validChain));
-
-            if (!validChain && !session.getGeyser().getConfig().isEnableProxyConnections()) {
-                session.disconnect(GeyserLocale.getLocaleStringLog("geyser.network.remote.invalid_xbox_account"));
-                return;
-            }
-            JWSObject jwt = JWSObject.parse(certChainData.get(certChainData.size() - 1).asText());
-            JsonNode payload = JSON_MAPPER.readTree(jwt.getPayload().toBytes());
-
-            if (payload.get("extraData").getNodeType() != JsonNodeType.OBJECT) {
-                throw new RuntimeException("AuthData was not found!");
-            }
+        String clientData = loginPacket.getSkinData().toString();
+        boolean validChain = validateChainData(certChainData);
 
-            JsonNode extraData = payload.get("extraData");
-            session.setAuthenticationData(new AuthData(
-                    extraData.get("displayName").asText(),
-                    UUID.fromString(extraData.get("identity").asText()),
-                    extraData.get("XUID").asText(),
-                    certChainData, clientData
-            ));
+        geyser.getLogger().debug(String.format("Is player data valid? %s", validChain));
 
-            if (payload.get("identityPublicKey").getNodeType() != JsonNodeType.STRING) {
-                throw new RuntimeException("Identity Public Key was not found!");
-            }
+        if (!validChain && !geyser.getConfig().isEnableProxyConnections()) {
+            return new VerifiedLogin(false, null, null, null, null);
+        }
+        JWSObject jwt = JWSObject.parse(certChainData.get(certChainData.size() - 1).asText());
+        JsonNode payload = JSON_MAPPER.readTree(jwt.getPayload().toBytes());
 
-            ECPublicKey identityPublicKey = EncryptionUtils.generateKey(payload.get("identityPublicKey").textValue());
-            JWSObject clientJwt = JWSObject.parse(clientData);
-            EncryptionUtils.verifyJwt(clientJwt, identityPublicKey);
+        if (payload.get("extraData").getNodeType() != JsonNodeType.OBJECT) {
+            throw new RuntimeException("AuthData was not found!");
+        }
 
-            JsonNode clientDataJson = JSON_MAPPER.readTree(clientJwt.getPayload().toBytes());
-            BedrockClientData data = JSON_MAPPER.convertValue(clientDataJson, BedrockClientData.class);
-            session.setClientData(data);
+        JsonNode extraData = payload.get("extraData");
+        AuthData authData = new AuthData(
+                extraData.get("displayName").asText(),
+                UUID.fromString(extraData.get("identity").asText()),
+                extraData.get("XUID").asText(),
+                certChainData, clientData
+        );
 
-            if (EncryptionUtils.canUseEncryption()) {
-                try {
-                    LoginEncryptionUtils.startEncryptionHandshake(session, identityPublicKey);
-                } catch (Throwable e) {
-                    // An error can be thrown on older Java 8 versions about an invalid key
-                    if (geyser.getConfig().isDebugMode()) {
-                        e.printStackTrace();
-                    }
+        if (payload.get("identityPublicKey").getNodeType() != JsonNodeType.STRING) {
+            throw new RuntimeException("Identity Public Key was not found!");
+        }
 
-                    sendEncryptionFailedMessage(geyser);
+        ECPublicKey identityPublicKey = EncryptionUtils.generateKey(payload.get("identityPublicKey").textValue());
+        JWSObject clientJwt = JWSObject.parse(clientData);
+        EncryptionUtils.verifyJwt(clientJwt, identityPublicKey);
+
+        JsonNode clientDataJson = JSON_MAPPER.readTree(clientJwt.getPayload().toBytes());
+        BedrockClientData data = JSON_MAPPER.convertValue(clientDataJson, BedrockClientData.class);
+
+        SecretKey encryptionKey = null;
+        String handshakeJwt = null;
+        if (EncryptionUtils.canUseEncryption()) {
+            try {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp384r1"));
+                KeyPair serverKeyPair = generator.generateKeyPair();
+
+                byte[] token = EncryptionUtils.generateRandomToken();
+                encryptionKey = EncryptionUtils.getSecretKey(serverKeyPair.getPrivate(), identityPublicKey, token);
+                handshakeJwt = EncryptionUtils.createHandshakeJwt(serverKeyPair, token).serialize();
+            } catch (Throwable e) {
+                // An error can be thrown on older Java 8 versions about an invalid key
+                if (geyser.getConfig().isDebugMode()) {
+                    e.printStackTrace();
                 }
-            } else {
-                sendEncryptionFailedMessage(geyser);
+                encryptionKey = null;
+                handshakeJwt = null;
             }
-        } catch (Exception ex) {
-            session.disconnect("disconnectionScreen.internalError.cantConnect");
-            throw new RuntimeException("Unable to complete login", ex);
         }
+        return new VerifiedLogin(true, authData, data, encryptionKey, handshakeJwt);
     }
 
-    private static void startEncryptionHandshake(GeyserSession session, PublicKey key) throws Exception {
-        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
-        generator.initialize(new ECGenParameterSpec("secp384r1"));
-        KeyPair serverKeyPair = generator.generateKeyPair();
+    /**
+     * Applies a verified login to the session and starts encrypting its connection.
+     * Should be called on the session's event loop.
+     */
+    public static void completeLogin(GeyserSession session, VerifiedLogin login) {
+        GeyserImpl geyser = session.getGeyser();
+        if (!login.valid()) {
+            session.disconnect(GeyserLocale.getLocaleStringLog("geyser.network.remote.invalid_xbox_account"));
+            return;
+        }
+
+        session.setAuthenticationData(login.authData());
+        session.setClientData(login.clientData());
+
+        if (login.encryptionKey() == null) {
+            sendEncryptionFailedMessage(geyser);
+            return;
+        }
 
-        byte[] token = EncryptionUtils.generateRandomToken();
-        SecretKey encryptionKey = EncryptionUtils.getSecretKey(serverKeyPair.getPrivate(), key, token);
-        session.getUpstream().getSession().enableEncryption(encryptionKey);
+        session.getUpstream().getSession().enableEncryption(login.encryptionKey());
 
         ServerToClientHandshakePacket packet = new ServerToClientHandshakePacket();
-        packet.setJwt(EncryptionUtils.createHandshakeJwt(serverKeyPair, token).serialize());
+        packet.setJwt(login.handshakeJwt());
         session.sendUpstreamPacketImmediately(packet);
     }
 
+    /**
+     * The result of verifying a login chain.
+     *
+     * @param valid if the login chain was valid, or proxy connections are allowed
+     * @param encryptionKey the key to encrypt the connection with, or null if encryption is not available
+     * @param handshakeJwt the handshake to send to the client for it to start encrypting as well
+     */
+    public record VerifiedLogin(boolean valid, AuthData authData, BedrockClientData clientData,
+                                @Nullable SecretKey encryptionKey, @Nullable String handshakeJwt) {
+    }
+
     private static void sendEncryptionFailedMessage(GeyserImpl geyser) {
         if (!HAS_SENT_ENCRYPTION_MESSAGE) {
             geyser.getLogger().warning(GeyserLocale.getLocaleStringLog("geyser.network.encryption.line_1"));
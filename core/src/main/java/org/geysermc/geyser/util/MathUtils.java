@@ -25,10 +25,35 @@
 
 package org.geysermc.geyser.util;
 
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
 public class MathUtils {
 
     public static final double SQRT_OF_TWO = Math.sqrt(2);
 
+    /**
+     * Every power of ten that can be represented exactly as a double
+     */
+    private static final double[] POWERS_OF_TEN = new double[23];
+    /**
+     * Beyond the world border, Float.toString may not give the shortest representation of a float
+     */
+    private static final float MAX_DECIMAL_FLOAT = 3.0e7f;
+    /**
+     * The locale used is necessary so other regions don't use <code>,</code> as their decimal separator.
+     */
+    private static final DecimalFormat FIVE_DECIMALS_FORMAT = new DecimalFormat("#.#####", new DecimalFormatSymbols(Locale.ENGLISH));
+
+    static {
+        double power = 1;
+        for (int i = 0; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = power;
+            power *= 10;
+        }
+    }
+
     /**
      * Round the given float to the next whole number
      *
@@ -112,4 +137,67 @@ public class MathUtils {
     public static int getGlobalPaletteForSize(int size) {
         return 32 - Integer.numberOfLeadingZeros(size - 1);
     }
+
+    /**
+     * Converts a float to the double closest to its decimal representation, e.g. {@code 0.1f} becomes {@code 0.1}
+     * rather than {@code 0.10000000149011612}. Gives the same result as {@code Double.parseDouble(Float.toString(value))}
+     * without creating a string.
+     *
+     * @param value the float to convert
+     * @return the double closest to the shortest decimal that represents this float
+     */
+    public static double floatToDecimalDouble(float value) {
+        if (value == 0) {
+            return value;
+        }
+        if (!(Math.abs(value) <= MAX_DECIMAL_FLOAT)) {
+            return Double.parseDouble(Float.toString(value));
+        }
+
+        double exact = value;
+        int exponent = (int) Math.floor(Math.log10(Math.abs(exact)));
+        // Find the fewest significant digits that still read back as the same float
+        for (int digits = 1; digits <= 9; digits++) {
+            int scale = digits - 1 - exponent;
+            double decimal;
+            if (scale >= 0) {
+                if (scale >= POWERS_OF_TEN.length) {
+                    break;
+                }
+                decimal = Math.rint(exact * POWERS_OF_TEN[scale]) / POWERS_OF_TEN[scale];
+            } else {
+                decimal = Math.rint(exact / POWERS_OF_TEN[-scale]) * POWERS_OF_TEN[-scale];
+            }
+            if ((float) decimal == value) {
+                return decimal;
+            }
+        }
+        return Double.parseDouble(Float.toString(value));
+    }
+
+    /**
+     * Rounds a double to at most five decimal places. Gives the same result as formatting it with
+     * {@code #.#####} and parsing it again, without creating a string in all but the rarest cases.
+     * NaN and infinite values, which the formatter can't be parsed back from, are returned as they are.
+     *
+     * @param value the double to round
+     * @return the rounded double
+     */
+    public static double trimToFiveDecimals(double value) {
+        if (!Double.isFinite(value)) {
+            return value;
+        }
+        double scaled = value * 100000;
+        double floor = Math.floor(scaled);
+        double fraction = scaled - floor;
+        if (!(Math.abs(scaled) < 1e15) || Math.abs(fraction - 0.5) < 1e-6) {
+            // Too close to call in binary; the formatter rounds half-even on the decimal representation
+            synchronized (FIVE_DECIMALS_FORMAT) {
+                return Double.parseDouble(FIVE_DECIMALS_FORMAT.format(value));
+            }
+        }
+        double trimmed = (fraction < 0.5 ? floor : floor + 1) / 100000;
+        // Keep the sign of values that round to zero, like the formatter does
+        return trimmed == 0 ? Math.copySign(0.0, value) : trimmed;
+    }
 }
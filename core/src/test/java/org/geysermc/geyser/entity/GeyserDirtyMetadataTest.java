@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2019-2022 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.entity;
+
+import com.nukkitx.protocol.bedrock.data.entity.EntityData;
+import com.nukkitx.protocol.bedrock.data.entity.EntityDataMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.EnumSet;
+
+public class GeyserDirtyMetadataTest {
+
+    @Test
+    public void testApplyKeepsValueTypes() {
+        GeyserDirtyMetadata metadata = new GeyserDirtyMetadata();
+        metadata.put(EntityData.SCALE, 1.5f);
+        metadata.put(EntityData.COLOR, (byte) 3);
+        metadata.put(EntityData.AIR_SUPPLY, (short) 300);
+        metadata.put(EntityData.VARIANT, 7);
+        metadata.put(EntityData.NAMETAG, "Geyser");
+
+        EntityDataMap map = new EntityDataMap();
+        metadata.apply(map);
+
+        Assert.assertEquals(1.5f, map.get(EntityData.SCALE));
+        Assert.assertEquals((byte) 3, map.get(EntityData.COLOR));
+        Assert.assertEquals((short) 300, map.get(EntityData.AIR_SUPPLY));
+        Assert.assertEquals(7, map.get(EntityData.VARIANT));
+        Assert.assertEquals("Geyser", map.get(EntityData.NAMETAG));
+        Assert.assertFalse(metadata.hasEntries());
+    }
+
+    @Test
+    public void testOverwriteAndReuse() {
+        GeyserDirtyMetadata metadata = new GeyserDirtyMetadata();
+        metadata.put(EntityData.VARIANT, 1);
+        metadata.put(EntityData.VARIANT, 2);
+        metadata.put(EntityData.NAMETAG, "first");
+        metadata.put(EntityData.NAMETAG, 5);
+
+        EntityDataMap map = new EntityDataMap();
+        metadata.apply(map);
+        Assert.assertEquals(2, map.size());
+        Assert.assertEquals(2, map.get(EntityData.VARIANT));
+        Assert.assertEquals(5, map.get(EntityData.NAMETAG));
+
+        // Entries must not leak into the next packet
+        metadata.put(EntityData.SCALE, 1f);
+        map = new EntityDataMap();
+        metadata.apply(map);
+        Assert.assertEquals(1, map.size());
+        Assert.assertEquals(1f, map.get(EntityData.SCALE));
+    }
+
+    @Test
+    public void testContainsOnly() {
+        GeyserDirtyMetadata metadata = new GeyserDirtyMetadata();
+        metadata.put(EntityData.AIR_SUPPLY, (short) 10);
+        Assert.assertTrue(metadata.containsOnly(EnumSet.of(EntityData.AIR_SUPPLY, EntityData.FREEZING_EFFECT_STRENGTH)));
+
+        metadata.put(EntityData.SCALE, 1f);
+        Assert.assertFalse(metadata.containsOnly(EnumSet.of(EntityData.AIR_SUPPLY, EntityData.FREEZING_EFFECT_STRENGTH)));
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2019-2022 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk;
+
+import com.github.steveice10.mc.protocol.data.game.chunk.DataPalette;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class CompactChunkSectionTest {
+    private static final int SIZE = 4096;
+
+    @Test
+    public void testSingletonGrowsToPalette() {
+        for (boolean offHeap : new boolean[] {false, true}) {
+            CompactChunkSection section = CompactChunkSection.filledWith(5, offHeap);
+            int[] expected = filled(5);
+            set(section, expected, 100, 7);
+            set(section, expected, 4095, 9);
+            assertContents(expected, section);
+            section.release();
+        }
+    }
+
+    @Test
+    public void testPaletteSwitchesToDirect() {
+        for (boolean offHeap : new boolean[] {false, true}) {
+            CompactChunkSection section = CompactChunkSection.filledWith(0, offHeap);
+            int[] expected = filled(0);
+            // One more state than an 8 bit palette can hold
+            for (int i = 1; i <= 256; i++) {
+                set(section, expected, i * 13, i * 7);
+            }
+            assertContents(expected, section);
+            section.release();
+        }
+    }
+
+    @Test
+    public void testDirectStorageGrows() {
+        for (boolean offHeap : new boolean[] {false, true}) {
+            CompactChunkSection section = CompactChunkSection.filledWith(0, offHeap);
+            int[] expected = filled(0);
+            for (int i = 1; i <= 300; i++) {
+                set(section, expected, i, i);
+            }
+            // Each of these needs more bits per entry than the last
+            set(section, expected, 1000, 1 << 10);
+            set(section, expected, 2000, 1 << 13);
+            set(section, expected, 3000, 30_000);
+            assertContents(expected, section);
+            section.release();
+        }
+    }
+
+    @Test
+    public void testMatchesDataPalette() {
+        Random random = new Random(4096);
+        // Java's linear, hash map and global palettes
+        for (int states : new int[] {1, 3, 40, 600}) {
+            for (boolean offHeap : new boolean[] {false, true}) {
+                DataPalette javaSection = DataPalette.createForChunk();
+                for (int i = 0; i < SIZE; i++) {
+                    javaSection.set(i & 0xF, i >> 8, (i >> 4) & 0xF, random.nextInt(states) * 3);
+                }
+
+                CompactChunkSection section = CompactChunkSection.from(javaSection, offHeap);
+                assertContents(javaSection, section);
+
+                // Keeps matching after changes that may grow the palette or storage
+                for (int i = 0; i < 500; i++) {
+                    int index = random.nextInt(SIZE);
+                    int state = random.nextInt(states * 2) * 3;
+                    javaSection.set(index & 0xF, index >> 8, (index >> 4) & 0xF, state);
+                    section.set(index, state);
+                }
+                assertContents(javaSection, section);
+                section.release();
+            }
+        }
+    }
+
+    @Test
+    public void testOffHeapCopyIsIndependent() {
+        CompactChunkSection section = CompactChunkSection.filledWith(0, true);
+        int[] expected = filled(0);
+        for (int i = 0; i < 20; i++) {
+            set(section, expected, i * 200, i);
+        }
+        Assert.assertTrue(section.offHeapUsage() > 0);
+
+        CompactChunkSection copy = section.copy();
+        int[] copyExpected = expected.clone();
+        set(copy, copyExpected, 5, 1234);
+        assertContents(expected, section);
+        assertContents(copyExpected, copy);
+
+        section.release();
+        Assert.assertEquals(0, section.offHeapUsage());
+        // The copy has its own memory
+        assertContents(copyExpected, copy);
+        copy.release();
+    }
+
+    private static int[] filled(int state) {
+        int[] states = new int[SIZE];
+        Arrays.fill(states, state);
+        return states;
+    }
+
+    private static void set(CompactChunkSection section, int[] expected, int index, int state) {
+        section.set(index, state);
+        expected[index] = state;
+    }
+
+    private static void assertContents(int[] expected, CompactChunkSection section) {
+        for (int i = 0; i < SIZE; i++) {
+            Assert.assertEquals("Block " + i, expected[i], section.get(i));
+        }
+    }
+
+    private static void assertContents(DataPalette expected, CompactChunkSection section) {
+        for (int i = 0; i < SIZE; i++) {
+            Assert.assertEquals("Block " + i, expected.get(i & 0xF, i >> 8, (i >> 4) & 0xF), section.get(i));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2019-2022 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.map;
+
+import org.geysermc.geyser.level.MapColor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class MapCanvasTest {
+    private static final int SIZE = MapCanvas.SIZE;
+
+    @Test
+    public void testRepeatedUpdateSendsNothing() {
+        MapCanvas canvas = new MapCanvas();
+        MapCanvas.ClientView view = new MapCanvas.ClientView();
+        byte[] image = filled(SIZE, SIZE, (byte) 4);
+
+        assertUpdate(canvas.update(0, 0, SIZE, SIZE, image, view), 0, 0, SIZE, SIZE);
+        Assert.assertNull(canvas.update(0, 0, SIZE, SIZE, image, view).colors());
+        Assert.assertNull(canvas.update(3, 5, 10, 10, filled(10, 10, (byte) 4), view).colors());
+    }
+
+    @Test
+    public void testSharedImageIsSentToEachClient() {
+        MapCanvas canvas = new MapCanvas();
+        MapCanvas.ClientView first = new MapCanvas.ClientView();
+        MapCanvas.ClientView second = new MapCanvas.ClientView();
+        byte[] image = filled(SIZE, SIZE, (byte) 4);
+
+        canvas.update(0, 0, SIZE, SIZE, image, first);
+        // The canvas already has these pixels, but this client hasn't been sent them yet
+        assertUpdate(canvas.update(0, 0, SIZE, SIZE, image, second), 0, 0, SIZE, SIZE);
+        Assert.assertNull(canvas.update(0, 0, SIZE, SIZE, image, second).colors());
+    }
+
+    @Test
+    public void testPartialUpdateOnlySendsChangedTiles() {
+        MapCanvas canvas = new MapCanvas();
+        MapCanvas.ClientView view = new MapCanvas.ClientView();
+        canvas.update(0, 0, SIZE, SIZE, filled(SIZE, SIZE, (byte) 4), view);
+
+        // Covers four tiles, but only changes the pixels of one of them
+        byte[] data = filled(8, 8, (byte) 4);
+        data[7 * 8 + 7] = 8;
+        assertUpdate(canvas.update(12, 12, 8, 8, data, view), 16, 16, 4, 4);
+        Assert.assertArrayEquals(expectedImage(4, 19, 19, (byte) 8), view.toARGB());
+    }
+
+    @Test
+    public void testClientKeepsItsOwnImage() {
+        MapCanvas canvas = new MapCanvas();
+        MapCanvas.ClientView first = new MapCanvas.ClientView();
+        MapCanvas.ClientView second = new MapCanvas.ClientView();
+
+        // Maps rendered differently for each player
+        canvas.update(0, 0, SIZE, SIZE, filled(SIZE, SIZE, (byte) 4), first);
+        canvas.update(0, 0, SIZE, SIZE, filled(SIZE, SIZE, (byte) 8), second);
+        Assert.assertArrayEquals(expectedImage(4, -1, -1, (byte) 0), first.toARGB());
+        Assert.assertArrayEquals(expectedImage(8, -1, -1, (byte) 0), second.toARGB());
+
+        // The first client already shows this, even though the canvas doesn't
+        Assert.assertNull(canvas.update(0, 0, SIZE, SIZE, filled(SIZE, SIZE, (byte) 4), first).colors());
+
+        // A partial update to a client out of sync still only touches what the server sent
+        assertUpdate(canvas.update(0, 0, 1, 1, new byte[] {12}, second), 0, 0, 1, 1);
+        Assert.assertArrayEquals(expectedImage(8, 0, 0, (byte) 12), second.toARGB());
+    }
+
+    @Test
+    public void testIncompleteMapHasNoImage() {
+        MapCanvas canvas = new MapCanvas();
+        MapCanvas.ClientView view = new MapCanvas.ClientView();
+        Assert.assertNull(view.toARGB());
+        canvas.update(0, 0, 64, 64, filled(64, 64, (byte) 4), view);
+        Assert.assertNull(view.toARGB());
+    }
+
+    private static void assertUpdate(MapCanvas.Update update, int x, int y, int width, int height) {
+        Assert.assertNotNull("Expected pixels to be sent", update.colors());
+        Assert.assertEquals(x, update.x());
+        Assert.assertEquals(y, update.y());
+        Assert.assertEquals(width, update.width());
+        Assert.assertEquals(height, update.height());
+        Assert.assertEquals(width * height, update.colors().length);
+    }
+
+    private static byte[] filled(int width, int height, byte color) {
+        byte[] data = new byte[width * height];
+        Arrays.fill(data, color);
+        return data;
+    }
+
+    /**
+     * @return a whole image of one color as ARGB, with one pixel of another color if x is not negative
+     */
+    private static int[] expectedImage(int color, int x, int y, byte pixelColor) {
+        int[] argb = new int[SIZE * SIZE];
+        Arrays.fill(argb, MapColor.toARGB((byte) color));
+        if (x >= 0) {
+            argb[y * SIZE + x] = MapColor.toARGB(pixelColor);
+        }
+        return argb;
+    }
+}
@@ -26,6 +26,8 @@
 package org.geysermc.geyser.network.translators.chat;
 
 import com.github.steveice10.mc.protocol.data.DefaultComponentSerializer;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
 import org.geysermc.geyser.translator.text.MessageTranslator;
 import org.junit.Assert;
 import org.junit.Before;
@@ -74,6 +76,13 @@ public class MessageTranslatorTest {
         }
     }
 
+    @Test
+    public void convertPlainTextMessage() {
+        Assert.assertEquals("Plain text message is not handled properly", "Plain message", MessageTranslator.convertMessage(Component.text("Plain message"), "en_US"));
+        Assert.assertEquals("Legacy codes in plain text are not handled properly", "§r§cRed §lBold", MessageTranslator.convertMessage(Component.text("§cRed §lBold"), "en_US"));
+        Assert.assertEquals("Styled message is not handled properly", "§r§eStyled", MessageTranslator.convertMessage(Component.text("Styled", NamedTextColor.YELLOW), "en_US"));
+    }
+
     @Test
     public void convertMessageLenient() {
         Assert.assertEquals("All newline message is not handled properly", "\n\n\n\n", MessageTranslator.convertMessageLenient("\n\n\n\n"));
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2019-2022 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Random;
+
+public class MathUtilsTest {
+    private static final int SAMPLES = 5_000;
+
+    @Test
+    public void testFloatToDecimalDoubleMatchesString() {
+        float[] edgeCases = {
+                0f, -0f, 0.1f, -0.1f, 0.5f, -2.5f, 0.125f, 1.0000001f, 1e-7f,
+                // Around powers of ten, where the decimal exponent changes
+                1f, Math.nextDown(1f), 10f, Math.nextDown(10f), Math.nextUp(10f), 0.001f, Math.nextDown(0.001f), 1e6f, -1e6f,
+                // Around the world border and the largest float handled without a string
+                29_999_984f, -29_999_984f, 3.0e7f, Math.nextUp(3.0e7f), -3.0e7f, 1e10f,
+                Float.MIN_VALUE, Float.MIN_NORMAL, Float.MAX_VALUE, -Float.MAX_VALUE,
+                Float.NaN, Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY
+        };
+        for (float value : edgeCases) {
+            assertSameDouble(value);
+        }
+
+        Random random = new Random(149);
+        for (int i = 0; i < SAMPLES; i++) {
+            // Mostly world coordinates, plus the occasional arbitrary bit pattern
+            float value = i % 10 == 0 ? Float.intBitsToFloat(random.nextInt()) : (random.nextFloat() - 0.5f) * 60_000_000f / (1 << random.nextInt(24));
+            assertSameDouble(value);
+        }
+    }
+
+    @Test
+    public void testTrimToFiveDecimalsMatchesFormat() {
+        DecimalFormat format = new DecimalFormat("#.#####", new DecimalFormatSymbols(Locale.ENGLISH));
+        double[] edgeCases = {
+                0d, -0d, 1d, -1d, 0.5, 0.125, 0.000005, -0.000005, 0.0000049, 0.000015, -0.000025, 1.000005,
+                64.000015, -64.000015, 319.999995, 0.999995, -0.999995, 1e-10, -1e-10,
+                // Around where the scaled value is too large to round in binary
+                9_999_999_999.5, 1e10, 1e11, -1e11, 1e20, Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE
+        };
+        for (double value : edgeCases) {
+            assertSameTrim(format, value);
+        }
+
+        Random random = new Random(185);
+        for (int i = 0; i < SAMPLES; i++) {
+            assertSameTrim(format, (random.nextDouble() - 0.5) * 1024);
+        }
+    }
+
+    @Test
+    public void testTrimToFiveDecimalsKeepsNonFinite() {
+        Assert.assertTrue(Double.isNaN(MathUtils.trimToFiveDecimals(Double.NaN)));
+        Assert.assertEquals(Double.POSITIVE_INFINITY, MathUtils.trimToFiveDecimals(Double.POSITIVE_INFINITY), 0d);
+        Assert.assertEquals(Double.NEGATIVE_INFINITY, MathUtils.trimToFiveDecimals(Double.NEGATIVE_INFINITY), 0d);
+    }
+
+    private static void assertSameDouble(float value) {
+        double expected = Double.parseDouble(Float.toString(value));
+        Assert.assertEquals("Converting " + value, Double.doubleToLongBits(expected), Double.doubleToLongBits(MathUtils.floatToDecimalDouble(value)));
+    }
+
+    private static void assertSameTrim(DecimalFormat format, double value) {
+        double expected = Double.parseDouble(format.format(value));
+        // Compare bits so the sign of zero is checked as well
+        Assert.assertEquals("Trimming " + value, Double.doubleToLongBits(expected), Double.doubleToLongBits(MathUtils.trimToFiveDecimals(value)));
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2019-2022 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class XXHash64Test {
+
+    @Test
+    public void testKnownHashes() {
+        // Reference XXH64 values with seed 0, as the client computes them
+        assertHash(0xEF46DB3751D8E999L, "");
+        assertHash(0xD24EC4F1A98C6E5BL, "a");
+        assertHash(0x44BC2CF5AD770999L, "abc");
+        // Long enough to go through the stripe loop and both tail loops
+        assertHash(0xFBCEA83C8A378BF1L, "Nobody inspects the spammish repetition");
+    }
+
+    @Test
+    public void testOffsetMatchesCopy() {
+        byte[] data = "Nobody inspects the spammish repetition".getBytes(StandardCharsets.UTF_8);
+        for (int offset = 0; offset < data.length; offset += 5) {
+            int length = data.length - offset;
+            Assert.assertEquals(XXHash64.hash(Arrays.copyOfRange(data, offset, data.length)), XXHash64.hash(data, offset, length, 0L));
+        }
+    }
+
+    private static void assertHash(long expected, String input) {
+        Assert.assertEquals("Hashing \"" + input + "\"", expected, XXHash64.hash(input.getBytes(StandardCharsets.UTF_8)));
+    }
+}